@@ -0,0 +1,156 @@
+package bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import model.FilledHexagon;
+import model.MoveUndo;
+import model.NoDiscHexagon;
+import model.Player;
+import model.ReversiModel;
+
+/**
+ * Benchmarks of the operations of ReversiModel that the views, controllers and strategies call
+ * most, on boards of every size from 3 to 20, at the start of the game and in the middle of it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark {
+
+  @Param({"3", "4", "6", "8", "10", "12", "16", "20"})
+  public int size;
+
+  // how much of the board is covered with discs in the position measured
+  @Param({"0", "30", "60"})
+  public int fillPercent;
+
+  private ReversiModel model;
+
+  // the player to move and one of their legal moves, or null if they have none
+  private Player player;
+  private NoDiscHexagon move;
+
+  // the tiles with no disc of the position, for checkAll
+  private NoDiscHexagon[] open;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    this.model = Positions.midGame(this.size, this.fillPercent);
+    this.player = this.model.getPlayer();
+    List<NoDiscHexagon> legal = this.model.legalMoves(this.player);
+    this.move = legal.isEmpty() ? null : legal.get(legal.size() / 2);
+    this.open = this.model.getGrid().stream()
+            .filter(hex -> !(hex instanceof FilledHexagon))
+            .toArray(NoDiscHexagon[]::new);
+  }
+
+  /**
+   * Building a new game, which lays out and links the grid.
+   */
+  @Benchmark
+  public ReversiModel construct() {
+    return new ReversiModel(this.size);
+  }
+
+  /**
+   * Copying a game the way the strategies do.
+   */
+  @Benchmark
+  public ReversiModel copy() {
+    return Positions.copy(this.model);
+  }
+
+  /**
+   * Looking up every tile of the board by its coordinates.
+   */
+  @Benchmark
+  public void getHex(Blackhole bh) {
+    int span = 2 * this.size - 1;
+    for (int d = 0; d < span; d++) {
+      for (int r = 0; r < span; r++) {
+        bh.consume(this.model.getHex(d, r));
+      }
+    }
+  }
+
+  /**
+   * Making a move on a fresh copy of the position, through the checked makeMove.
+   */
+  @Benchmark
+  public ReversiModel copyAndMakeMove() {
+    ReversiModel copy = Positions.copy(this.model);
+    if (this.move != null) {
+      copy.makeMove(this.player, copy.getHex(this.move.getDiagonal(), this.move.getRow()));
+    }
+    return copy;
+  }
+
+  /**
+   * Making a move and taking it back, the way a search does.
+   */
+  @Benchmark
+  public MoveUndo makeAndUnmake() {
+    if (this.move == null) {
+      return null;
+    }
+    MoveUndo undo = this.model.makeSearchMove(this.player, this.move);
+    this.model.unmakeMove(undo);
+    return undo;
+  }
+
+  @Benchmark
+  public boolean gameOver() {
+    return this.model.gameOver();
+  }
+
+  @Benchmark
+  public int getScore() {
+    return this.model.getScore(Player.A) + this.model.getScore(Player.B);
+  }
+
+  @Benchmark
+  public List<NoDiscHexagon> legalMoves() {
+    return this.model.legalMoves(this.player);
+  }
+
+  /**
+   * Finding the captures of every tile with no disc through AbstractHexagon.checkAll.
+   */
+  @Benchmark
+  public void checkAll(Blackhole bh) {
+    for (NoDiscHexagon hex : this.open) {
+      List<FilledHexagon> own = hex.getFilledHexagons(this.player.getColor());
+      bh.consume(hex.checkAll(own, hex, this.player.getColor()));
+    }
+  }
+
+  /**
+   * Counting the captures of every tile with no disc without building lists.
+   */
+  @Benchmark
+  public int countFlips() {
+    int total = 0;
+    for (NoDiscHexagon hex : this.open) {
+      total += hex.countFlips(this.player.getColor());
+    }
+    return total;
+  }
+}
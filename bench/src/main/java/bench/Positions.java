@@ -0,0 +1,59 @@
+package bench;
+
+import java.util.List;
+import java.util.Random;
+
+import model.NoDiscHexagon;
+import model.Player;
+import model.ReversiModel;
+
+/**
+ * The positions the benchmarks are run on. A position is reached by playing random legal moves
+ * from the start of the game with a fixed seed, so every run measures the same positions.
+ */
+final class Positions {
+
+  // the seed of the random moves, fixed so that runs can be compared
+  private static final long SEED = 20240601L;
+
+  private Positions() {
+  }
+
+  /**
+   * Returns a started game of the given size in which about the given percent of the board is
+   * covered with discs. A player with no legal move passes, and the game stops early if
+   * neither player can move.
+   *
+   * @param size the size of the board.
+   * @param fillPercent how much of the board to cover, from 0 to 100.
+   * @return the game.
+   */
+  static ReversiModel midGame(int size, int fillPercent) {
+    ReversiModel model = new ReversiModel(size);
+    model.startGame();
+    Random random = new Random(SEED);
+    int target = model.getGrid().size() * fillPercent / 100;
+    while (!model.gameOver()
+            && model.getScore(Player.A) + model.getScore(Player.B) < target) {
+      Player who = model.getPlayer();
+      List<NoDiscHexagon> legal = model.legalMoves(who);
+      if (legal.isEmpty()) {
+        model.nextPlayer(who);
+      } else {
+        model.makeMove(who, legal.get(random.nextInt(legal.size())));
+      }
+    }
+    return model;
+  }
+
+  /**
+   * Returns a copy of the given game, started if the game was started.
+   *
+   * @param model the game to copy.
+   * @return the copy.
+   */
+  static ReversiModel copy(ReversiModel model) {
+    return new ReversiModel(model.gameState(), model.getPlayer(), model.getBoardSize(),
+            model.getGrid());
+  }
+}
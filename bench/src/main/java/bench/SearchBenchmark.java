@@ -0,0 +1,70 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.NoDiscHexagon;
+import model.Player;
+import model.ReversiModel;
+import strategy.AlphaBetaStrategy;
+import strategy.PositionalEvaluator;
+import strategy.ReversiStrategy;
+
+/**
+ * Benchmarks of choosing one move with a new AlphaBetaStrategy, on boards of every size from 3
+ * to 20, at the start of the game and in the middle of it. Each call is timed on its own with
+ * a strategy made just before it, since a strategy asked for the same position again finds the
+ * answer in its transposition table. The table is made during the call, so it is kept small
+ * enough for a 3 move search that making it costs next to nothing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20)
+@Measurement(iterations = 50)
+@Fork(1)
+public class SearchBenchmark {
+
+  // the number of entries in the transposition table of each strategy, 64 KB
+  private static final int TABLE_ENTRIES = 1 << 12;
+
+  @Param({"3", "4", "6", "8", "10", "12", "16", "20"})
+  public int size;
+
+  // how much of the board is covered with discs in the position measured
+  @Param({"0", "30", "60"})
+  public int fillPercent;
+
+  private ReversiModel model;
+  private Player player;
+  private ReversiStrategy strategy;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    this.model = Positions.midGame(this.size, this.fillPercent);
+    this.player = this.model.getPlayer();
+  }
+
+  @Setup(Level.Invocation)
+  public void newStrategy() {
+    // a shallow fixed depth keeps the cost comparable across board sizes
+    this.strategy = new AlphaBetaStrategy(3, new PositionalEvaluator(), 0, TABLE_ENTRIES);
+  }
+
+  @Benchmark
+  public NoDiscHexagon chooseTile() {
+    return this.strategy.chooseTile(this.model, this.player);
+  }
+}
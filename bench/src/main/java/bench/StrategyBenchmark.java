@@ -0,0 +1,82 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.NoDiscHexagon;
+import model.Player;
+import model.ReversiModel;
+import strategy.AnyOpenCorner;
+import strategy.AvoidCorners;
+import strategy.CaptureMaxTiles;
+import strategy.Minimax;
+import strategy.ReversiStrategy;
+
+/**
+ * Benchmarks of choosing one move with each strategy, on boards of every size from 3 to 20, at
+ * the start of the game and in the middle of it. The strategies measured here keep nothing
+ * between moves, so the same instance is used for every call; AlphaBetaStrategy, which keeps a
+ * transposition table, is measured by SearchBenchmark instead.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrategyBenchmark {
+
+  @Param({"CaptureMaxTiles", "AvoidCorners", "AnyOpenCorner", "Minimax"})
+  public String strategyName;
+
+  @Param({"3", "4", "6", "8", "10", "12", "16", "20"})
+  public int size;
+
+  // how much of the board is covered with discs in the position measured
+  @Param({"0", "30", "60"})
+  public int fillPercent;
+
+  private ReversiModel model;
+  private Player player;
+  private ReversiStrategy strategy;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    this.model = Positions.midGame(this.size, this.fillPercent);
+    this.player = this.model.getPlayer();
+    this.strategy = create(this.strategyName);
+  }
+
+  @Benchmark
+  public NoDiscHexagon chooseTile() {
+    return this.strategy.chooseTile(this.model, this.player);
+  }
+
+  // the strategy with the given name
+  private static ReversiStrategy create(String name) {
+    switch (name) {
+      case "CaptureMaxTiles":
+        return new CaptureMaxTiles();
+      case "AvoidCorners":
+        return new AvoidCorners();
+      case "AnyOpenCorner":
+        return new AnyOpenCorner();
+      case "Minimax":
+        return new Minimax();
+      default:
+        throw new IllegalArgumentException("Unknown strategy: " + name);
+    }
+  }
+}
@@ -0,0 +1,73 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import strategy.OpeningBook;
+import strategy.PositionalEvaluator;
+
+/**
+ * A headless entry-point that builds an OpeningBook ahead of time and saves it to a file, which
+ * ReversiMain can then play from with book=FILE.
+ *
+ * <p>Command line arguments, in any order:
+ * <ul>
+ *   <li>sizes=N or sizes=FROM-TO: the board sizes to cover, 4-10 by default.</li>
+ *   <li>plies=N: the number of moves from the start of the game to cover, 8 by default.</li>
+ *   <li>depth=N: the number of moves each position is searched ahead, 6 by default.</li>
+ *   <li>out=FILE: the file to save the book to, opening.book by default.</li>
+ * </ul>
+ */
+public final class ReversiBookGenerator {
+
+  private ReversiBookGenerator() {
+  }
+
+  /**
+   * Builds and saves an opening book with the given command line arguments.
+   * @param args the options of the book.
+   */
+  public static void main(String[] args) {
+    int from = 4;
+    int to = 10;
+    int plies = 8;
+    int depth = 6;
+    Path out = Paths.get("opening.book");
+    try {
+      for (String arg : args) {
+        if (arg.startsWith("sizes=")) {
+          String value = arg.substring("sizes=".length());
+          int dash = value.indexOf('-');
+          from = Integer.parseInt(dash < 0 ? value : value.substring(0, dash));
+          to = dash < 0 ? from : Integer.parseInt(value.substring(dash + 1));
+        } else if (arg.startsWith("plies=")) {
+          plies = Integer.parseInt(arg.substring("plies=".length()));
+        } else if (arg.startsWith("depth=")) {
+          depth = Integer.parseInt(arg.substring("depth=".length()));
+        } else if (arg.startsWith("out=")) {
+          out = Paths.get(arg.substring("out=".length()));
+        } else {
+          throw new IllegalArgumentException("Unknown option: " + arg);
+        }
+      }
+      if (from < 2 || to < from) {
+        throw new IllegalArgumentException("Invalid board sizes: " + from + "-" + to);
+      }
+
+      OpeningBook book = new OpeningBook();
+      for (int size = from; size <= to; size++) {
+        long start = System.nanoTime();
+        int added = book.generate(size, plies, depth, new PositionalEvaluator());
+        System.out.printf("size %d: %d positions in %d ms%n", size, added,
+                (System.nanoTime() - start) / 1_000_000);
+      }
+      book.save(out);
+      System.out.printf("saved %d positions to %s%n", book.size(), out);
+    }
+    catch (IllegalArgumentException e) {
+      System.out.println(e.getMessage());
+    }
+    catch (IOException e) {
+      System.out.println("Could not save the opening book: " + e.getMessage());
+    }
+  }
+}
@@ -1,15 +1,26 @@
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
+import javax.swing.SwingUtilities;
+
 import controller.HumanController;
 import controller.MachineController;
 import controller.ModelStatusObservers;
 import model.Player;
 import model.ReversiModel;
 import model.ReversiPlayerImpl;
+import strategy.AlphaBetaStrategy;
 import strategy.AnyOpenCorner;
 import strategy.AvoidCorners;
 import strategy.CaptureMaxTiles;
+import strategy.EndgameSolver;
+import strategy.MCTSStrategy;
 import strategy.Minimax;
+import strategy.OpeningBook;
+import strategy.OpeningBookStrategy;
+import strategy.ParallelMode;
+import strategy.PositionalEvaluator;
 import strategy.ReversiStrategy;
 import view.ReversiGraphicsView;
 import view.ReversiView;
@@ -25,16 +36,59 @@ public final class ReversiMain {
   static ReversiModel rm = new ReversiModel();
   static ReversiView view = new ReversiGraphicsView(rm);
   static ReversiView view2 = new ReversiGraphicsView(rm);
+  // the time in milliseconds a searching strategy may think about each move, or 0 for no limit
+  static long timeLimit = 0;
+  // the number of threads a searching strategy may use
+  static int threads = 1;
+  // how a searching strategy spreads its search over more than one thread
+  static ParallelMode mode = ParallelMode.ROOT_SPLIT;
+  // the opening book strategy5 plays from before it starts searching, or null for none
+  static OpeningBook book = null;
+  // the number of playouts strategy6 plays for each move without a time limit
+  static final long MCTS_PLAYOUTS = 10000;
+  // the number of empty tiles at which machine players start solving the game, or 0 for never
+  static int endgame = EndgameSolver.DEFAULT_EMPTIES;
+  // whether machine players think about their answer while the other player thinks
+  static boolean ponder = false;
+  // how many moves ahead a pondering machine player looks to guess the other player's move
+  static final int PONDER_DEPTH = 3;
 
   /**
    * A main method to allow the user to choose different game variants from the command line,
-   * when running the program.
+   * when running the program. An argument of the form time=MILLIS anywhere on the command line
+   * limits how long strategy5 and strategy6 may think about each move, threads=N lets them
+   * search on N threads, mode=split or mode=smp chooses whether strategy5 splits the moves
+   * across its threads or runs the whole search on each of them, and book=FILE makes strategy5 play the moves of an opening book made by
+   * ReversiBookGenerator while the game is in the book. Every machine player solves the game
+   * exactly once few tiles are left empty; endgame=N sets that number of tiles and endgame=0
+   * turns the solver off. The argument ponder makes machine players guess the other player's
+   * move and think about their answer while the other player thinks.
    */
   public static void main(String[] args) {
 
     StringBuilder str = new StringBuilder();
     String sep = "";
     for (int i = 0; i < args.length; i++) {
+      if (args[i].startsWith("time=")) {
+        timeLimit = parsePositive(args[i].substring("time=".length()), "time limit");
+        continue;
+      } else if (args[i].startsWith("threads=")) {
+        threads = (int) Math.max(1, Math.min(Integer.MAX_VALUE,
+                parsePositive(args[i].substring("threads=".length()), "number of threads")));
+        continue;
+      } else if (args[i].startsWith("mode=")) {
+        mode = parseMode(args[i].substring("mode=".length()));
+        continue;
+      } else if (args[i].startsWith("book=")) {
+        book = loadBook(args[i].substring("book=".length()));
+        continue;
+      } else if (args[i].startsWith("endgame=")) {
+        endgame = parseEndgame(args[i].substring("endgame=".length()));
+        continue;
+      } else if (args[i].equals("ponder")) {
+        ponder = true;
+        continue;
+      }
       str.append(sep).append(args[i]);
       sep = " ";
     }
@@ -70,6 +124,12 @@ public final class ReversiMain {
         case "strategy4":
           mainHelper(new Minimax(), count);
           break;
+        case "strategy5":
+          mainHelper(searchStrategy(), count);
+          break;
+        case "strategy6":
+          mainHelper(playoutStrategy(), count);
+          break;
         default:
           System.out.println("Score: 0");
       }
@@ -82,27 +142,121 @@ public final class ReversiMain {
       view2.makeVisible();
       rc1.setView(view);
       rc2.setView(view2);
-      rm.startGame();
+      SwingUtilities.invokeLater(rm::startGame);
     }
     catch (Exception e) {
       System.out.println("Game could not be started because of invalid input");
     }
   }
 
+  // creates the searching strategy5 with the time limit, number of threads, parallel mode and
+  // opening book given on the command line
+  private static ReversiStrategy searchStrategy() {
+    int depth = timeLimit > 0 ? Integer.MAX_VALUE : 4;
+    ReversiStrategy search;
+    if (threads > 1) {
+      search = mode.create(depth, new PositionalEvaluator(), timeLimit, threads);
+    } else if (timeLimit > 0) {
+      search = new AlphaBetaStrategy(new PositionalEvaluator(), timeLimit);
+    } else {
+      search = new AlphaBetaStrategy(depth);
+    }
+    if (book != null) {
+      return new OpeningBookStrategy(book, search);
+    }
+    return search;
+  }
+
+  // creates the playout strategy6 with the time limit and number of threads given on the
+  // command line
+  private static ReversiStrategy playoutStrategy() {
+    if (timeLimit > 0) {
+      return new MCTSStrategy(0, timeLimit, threads, MCTSStrategy.Parallelism.TREE);
+    }
+    return new MCTSStrategy(MCTS_PLAYOUTS, 0, threads, MCTSStrategy.Parallelism.TREE);
+  }
+
+  // reads the opening book in the given file, or returns null if it cannot be read
+  private static OpeningBook loadBook(String file) {
+    try {
+      return OpeningBook.load(Paths.get(file));
+    }
+    catch (IOException e) {
+      System.out.println("Invalid opening book: " + e.getMessage());
+      return null;
+    }
+  }
+
+  // reads the value of an option, or returns 0 if it is not a positive number
+  private static long parsePositive(String value, String name) {
+    try {
+      long number = Long.parseLong(value);
+      if (number > 0) {
+        return number;
+      }
+    }
+    catch (NumberFormatException e) {
+      // reported below
+    }
+    System.out.println("Invalid " + name + ".");
+    return 0;
+  }
+
+  // reads how a search is spread over its threads, or returns splitting the moves if it is not
+  // a mode the search has
+  private static ParallelMode parseMode(String value) {
+    switch (value) {
+      case "split":
+        return ParallelMode.ROOT_SPLIT;
+      case "smp":
+        return ParallelMode.LAZY_SMP;
+      default:
+        System.out.println("Invalid search mode.");
+        return ParallelMode.ROOT_SPLIT;
+    }
+  }
+
+  // reads the number of empty tiles at which the endgame solver takes over, or returns the
+  // default if it is not a number the solver takes
+  private static int parseEndgame(String value) {
+    try {
+      int number = Integer.parseInt(value);
+      if (number >= 0 && number <= 64) {
+        return number;
+      }
+    }
+    catch (NumberFormatException e) {
+      // reported below
+    }
+    System.out.println("Invalid number of endgame tiles.");
+    return EndgameSolver.DEFAULT_EMPTIES;
+  }
+
   // helper method that handles the try catch inside each case and creates the 2 controllers
   // used in the game
   private static void mainHelper(ReversiStrategy rs, int count) {
     try {
       if (count == 1) {
-        ReversiPlayerImpl player1 = new ReversiPlayerImpl(Player.A, rs);
-        rc1 = new MachineController(rm, player1, view);
+        ReversiPlayerImpl player1 = new ReversiPlayerImpl(Player.A, rs, endgame);
+        rc1 = machineController(player1, view);
       } else if (count == 2) {
-        ReversiPlayerImpl player1 = new ReversiPlayerImpl(Player.B, rs);
-        rc2 = new MachineController(rm, player1, view2);
+        ReversiPlayerImpl player1 = new ReversiPlayerImpl(Player.B, rs, endgame);
+        rc2 = machineController(player1, view2);
       }
     }
     catch (NullPointerException e) {
       System.out.print("Invalid input");
     }
   }
-}
\ No newline at end of file
+
+  // creates the controller of a machine player, which ponders if the ponder argument was given
+  private static MachineController machineController(ReversiPlayerImpl player, ReversiView v) {
+    if (!ponder) {
+      return new MachineController(rm, player, v);
+    }
+    Player other = player.getPlay() == Player.A ? Player.B : Player.A;
+    ReversiPlayerImpl opponent = new ReversiPlayerImpl(other,
+            new AlphaBetaStrategy(PONDER_DEPTH), 0);
+    return new MachineController(rm, player, v, opponent);
+  }
+}
@@ -0,0 +1,224 @@
+import java.util.ArrayList;
+import java.util.List;
+
+import model.BitboardReversi;
+import model.MoveUndo;
+import model.NoDiscHexagon;
+import model.Player;
+import model.Reversi;
+import model.ReversiModel;
+
+/**
+ * A headless entry-point that counts the positions reachable from the start of the game, to
+ * check that a Reversi implementation generates exactly the right moves and to measure how
+ * fast it does so. The count to depth N is the number of lines of N moves from the starting
+ * position. A player with no legal move passes, which counts as a move, and a line that ends
+ * in a finished game before depth N counts as one position.
+ *
+ * <p>Command line arguments, in any order:
+ * <ul>
+ *   <li>size=N: the board size, 6 by default.</li>
+ *   <li>depth=N: the number of moves to count to, 6 by default. Every depth from 1 up to N is
+ *       counted and timed.</li>
+ *   <li>impl=NAME: the implementation to count with, model for ReversiModel or bitboard for
+ *       BitboardReversi, model by default.</li>
+ *   <li>divide: also print the count below each first move at the deepest depth.</li>
+ *   <li>verify: walk every line to the given depth on ReversiModel and the given
+ *       implementation side by side, checking that both have the same legal moves, scores
+ *       and position hash at every position, and stop at the first difference.</li>
+ * </ul>
+ */
+public final class ReversiPerft {
+
+  private ReversiPerft() {
+  }
+
+  /**
+   * Runs perft with the given command line arguments.
+   * @param args the options of the run.
+   */
+  public static void main(String[] args) {
+    int size = 6;
+    int depth = 6;
+    String impl = "model";
+    boolean divide = false;
+    boolean verify = false;
+    try {
+      for (String arg : args) {
+        if (arg.startsWith("size=")) {
+          size = Integer.parseInt(arg.substring("size=".length()));
+        } else if (arg.startsWith("depth=")) {
+          depth = Integer.parseInt(arg.substring("depth=".length()));
+        } else if (arg.startsWith("impl=")) {
+          impl = arg.substring("impl=".length());
+        } else if (arg.equals("divide")) {
+          divide = true;
+        } else if (arg.equals("verify")) {
+          verify = true;
+        } else {
+          throw new IllegalArgumentException("Unknown option: " + arg);
+        }
+      }
+      if (depth < 1) {
+        throw new IllegalArgumentException("Depth must be at least 1");
+      }
+      create(impl, size);
+    }
+    catch (IllegalArgumentException e) {
+      System.out.println(e.getMessage());
+      return;
+    }
+
+    if (verify) {
+      String difference = verify(create("model", size), create(impl, size), Player.A, depth,
+              "");
+      System.out.println(difference == null
+              ? "model and " + impl + " agree on every position to depth " + depth
+              : "model and " + impl + " differ at " + difference);
+      return;
+    }
+
+    System.out.printf("perft of %s on a board of size %d%n", impl, size);
+    System.out.printf("%5s %15s %10s %15s%n", "depth", "positions", "ms", "positions/s");
+    for (int d = 1; d <= depth; d++) {
+      Reversi game = create(impl, size);
+      long start = System.nanoTime();
+      long nodes = perft(game, Player.A, d);
+      long nanos = Math.max(1, System.nanoTime() - start);
+      System.out.printf("%5d %15d %10d %15.0f%n", d, nodes, nanos / 1_000_000,
+              nodes * 1e9 / nanos);
+    }
+    if (divide) {
+      divide(create(impl, size), Player.A, depth);
+    }
+  }
+
+  /**
+   * Returns a new, started game of the given implementation in its starting position.
+   * @param impl model or bitboard.
+   * @param size the size of the board.
+   * @return the new game.
+   * @throws IllegalArgumentException if the implementation is not known or the size is less
+   *                                  than 2.
+   */
+  static Reversi create(String impl, int size) {
+    switch (impl) {
+      case "model":
+        ReversiModel model = new ReversiModel(size);
+        model.startGame();
+        return model;
+      case "bitboard":
+        BitboardReversi board = new BitboardReversi(size);
+        board.startGame();
+        return board;
+      default:
+        throw new IllegalArgumentException("Unknown implementation: " + impl);
+    }
+  }
+
+  /**
+   * Returns the number of lines of the given number of moves from the given position, with the
+   * given player to move. The game is left as it was.
+   * @param game the game to count on.
+   * @param who the player to move.
+   * @param depth the number of moves in each line.
+   * @return the number of positions at the end of the lines.
+   */
+  static long perft(Reversi game, Player who, int depth) {
+    if (depth == 0) {
+      return 1;
+    }
+    List<NoDiscHexagon> moves = game.legalMoves(who);
+    Player other = who == Player.A ? Player.B : Player.A;
+    if (moves.isEmpty()) {
+      if (game.legalMoves(other).isEmpty()) {
+        return 1;
+      }
+      return perft(game, other, depth - 1);
+    }
+    if (depth == 1) {
+      return moves.size();
+    }
+    long nodes = 0;
+    for (NoDiscHexagon move : moves) {
+      MoveUndo undo = game.makeSearchMove(who, move);
+      nodes += perft(game, other, depth - 1);
+      game.unmakeMove(undo);
+    }
+    return nodes;
+  }
+
+  // prints the number of lines below each first move
+  private static void divide(Reversi game, Player who, int depth) {
+    Player other = who == Player.A ? Player.B : Player.A;
+    List<NoDiscHexagon> moves = game.legalMoves(who);
+    long total = 0;
+    for (NoDiscHexagon move : moves) {
+      String name = move.getDiagonal() + "," + move.getRow();
+      MoveUndo undo = game.makeSearchMove(who, move);
+      long nodes = perft(game, other, depth - 1);
+      game.unmakeMove(undo);
+      total += nodes;
+      System.out.printf("%8s %15d%n", name, nodes);
+    }
+    System.out.printf("%8s %15d%n", "total", total);
+  }
+
+  // plays every line to the given depth on both games at once and returns a description of the
+  // first position where they differ, or null if they never do
+  private static String verify(Reversi expected, Reversi actual, Player who, int depth,
+                               String line) {
+    List<String> expectedMoves = names(expected.legalMoves(who));
+    List<String> actualMoves = names(actual.legalMoves(who));
+    if (!expectedMoves.equals(actualMoves)) {
+      return describe(line) + ": legal moves " + expectedMoves + " but got " + actualMoves;
+    } else if (expected.positionHash() != actual.positionHash()) {
+      return describe(line) + ": position hash differs";
+    }
+    for (Player p : Player.values()) {
+      if (expected.getScoreSnapshot().getScore(p) != actual.getScoreSnapshot().getScore(p)) {
+        return describe(line) + ": score of " + p + " differs";
+      }
+    }
+    if (depth == 0) {
+      return null;
+    }
+    Player other = who == Player.A ? Player.B : Player.A;
+    if (expectedMoves.isEmpty()) {
+      if (expected.legalMoves(other).isEmpty()) {
+        return null;
+      }
+      expected.nextPlayer(who);
+      actual.nextPlayer(who);
+      return verify(expected, actual, other, depth - 1, line + " pass");
+    }
+    for (NoDiscHexagon move : expected.legalMoves(who)) {
+      String name = move.getDiagonal() + "," + move.getRow();
+      MoveUndo undoExpected = expected.makeSearchMove(who, move);
+      MoveUndo undoActual = actual.makeSearchMove(who,
+              actual.getHex(move.getDiagonal(), move.getRow()));
+      String difference = verify(expected, actual, other, depth - 1, line + " " + name);
+      actual.unmakeMove(undoActual);
+      expected.unmakeMove(undoExpected);
+      if (difference != null) {
+        return difference;
+      }
+    }
+    return null;
+  }
+
+  // the coordinates of the given tiles, sorted so that the order of the moves does not matter
+  private static List<String> names(List<NoDiscHexagon> moves) {
+    List<String> names = new ArrayList<>();
+    for (NoDiscHexagon move : moves) {
+      names.add(move.getDiagonal() + "," + move.getRow());
+    }
+    names.sort(null);
+    return names;
+  }
+
+  // the line of moves leading to a position, for messages
+  private static String describe(String line) {
+    return line.isEmpty() ? "the start" : "after" + line;
+  }
+}
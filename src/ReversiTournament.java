@@ -0,0 +1,353 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import model.NoDiscHexagon;
+import model.Player;
+import model.ReversiModel;
+import strategy.AlphaBetaStrategy;
+import strategy.AnyOpenCorner;
+import strategy.AvoidCorners;
+import strategy.CaptureMaxTiles;
+import strategy.MCTSStrategy;
+import strategy.Minimax;
+import strategy.ParallelMode;
+import strategy.PositionalEvaluator;
+import strategy.ReversiStrategy;
+
+/**
+ * A headless entry-point that plays many games between strategies without any views or
+ * controllers and prints how each strategy did against each other strategy. Every pair of the
+ * given strategies plays the given number of games, each strategy taking Player A in half of
+ * them, and the games are spread over a pool of threads. A strategy that passes while it has a
+ * legal move, or chooses a tile that captures nothing, forfeits the game.
+ *
+ * <p>Command line arguments, in any order:
+ * <ul>
+ *   <li>strategy1 to strategy6: the strategies to play, named as in ReversiMain. At least two
+ *       must be given, and the same strategy may be given twice.</li>
+ *   <li>size=N: the board size, 6 by default.</li>
+ *   <li>games=N: the number of games each pair plays, 100 by default.</li>
+ *   <li>threads=N: the number of games played at once, the number of processors by
+ *       default.</li>
+ *   <li>random=N: the number of random moves that open every game, so that games between the
+ *       same strategies differ, 2 by default.</li>
+ *   <li>time=MILLIS: the time limit per move of strategy5 and strategy6, which otherwise
+ *       search 4 moves deep and play 10000 playouts.</li>
+ *   <li>search=N: the number of threads each search of strategy5 runs on, 1 by default.</li>
+ *   <li>mode=split or mode=smp: whether strategy5 splits the moves across its search threads
+ *       or runs the whole search on each of them, split by default.</li>
+ * </ul>
+ */
+public final class ReversiTournament {
+
+  // the strategies to play, in the order they were given
+  private final List<Entrant> entrants = new ArrayList<>();
+  private int size = 6;
+  private int games = 100;
+  private int threads = Runtime.getRuntime().availableProcessors();
+  private int randomMoves = 2;
+  private long timeLimit = 0;
+  private int searchThreads = 1;
+  private ParallelMode mode = ParallelMode.ROOT_SPLIT;
+
+  /**
+   * Runs a tournament with the given command line arguments.
+   * @param args the strategies to play and the options of the tournament.
+   */
+  public static void main(String[] args) {
+    ReversiTournament tournament = new ReversiTournament();
+    try {
+      tournament.parse(args);
+    }
+    catch (IllegalArgumentException e) {
+      System.out.println(e.getMessage());
+      return;
+    }
+    tournament.run();
+  }
+
+  // reads the options first, so that time=, search= and mode= apply to strategies named
+  // before them
+  private void parse(String[] args) {
+    List<String> names = new ArrayList<>();
+    for (String arg : args) {
+      if (arg.startsWith("size=")) {
+        this.size = (int) this.number(arg, 2);
+      } else if (arg.startsWith("games=")) {
+        this.games = (int) this.number(arg, 1);
+      } else if (arg.startsWith("threads=")) {
+        this.threads = (int) this.number(arg, 1);
+      } else if (arg.startsWith("random=")) {
+        this.randomMoves = (int) this.number(arg, 0);
+      } else if (arg.startsWith("time=")) {
+        this.timeLimit = this.number(arg, 1);
+      } else if (arg.startsWith("search=")) {
+        this.searchThreads = (int) this.number(arg, 1);
+      } else if (arg.equals("mode=split")) {
+        this.mode = ParallelMode.ROOT_SPLIT;
+      } else if (arg.equals("mode=smp")) {
+        this.mode = ParallelMode.LAZY_SMP;
+      } else if (arg.startsWith("mode=")) {
+        throw new IllegalArgumentException("Invalid option: " + arg);
+      } else {
+        names.add(arg);
+      }
+    }
+    for (String name : names) {
+      this.entrants.add(new Entrant(name, this.factory(name)));
+    }
+    if (this.entrants.size() < 2) {
+      throw new IllegalArgumentException("At least two strategies are needed.");
+    }
+  }
+
+  // the value of a name=value option, which must be at least the given minimum
+  private long number(String arg, long min) {
+    String value = arg.substring(arg.indexOf('=') + 1);
+    try {
+      long number = Long.parseLong(value);
+      if (number >= min && number <= Integer.MAX_VALUE) {
+        return number;
+      }
+    }
+    catch (NumberFormatException e) {
+      // reported below
+    }
+    throw new IllegalArgumentException("Invalid option: " + arg);
+  }
+
+  // creates new instances of the strategy with the given name
+  private Supplier<ReversiStrategy> factory(String name) {
+    long time = this.timeLimit;
+    int search = this.searchThreads;
+    ParallelMode parallel = this.mode;
+    switch (name) {
+      case "strategy1":
+        return CaptureMaxTiles::new;
+      case "strategy2":
+        return AvoidCorners::new;
+      case "strategy3":
+        return AnyOpenCorner::new;
+      case "strategy4":
+        return Minimax::new;
+      case "strategy5":
+        if (search > 1) {
+          int depth = time > 0 ? Integer.MAX_VALUE : 4;
+          return () -> parallel.create(depth, new PositionalEvaluator(), time, search);
+        } else if (time > 0) {
+          return () -> new AlphaBetaStrategy(new PositionalEvaluator(), time);
+        }
+        return AlphaBetaStrategy::new;
+      case "strategy6":
+        if (time > 0) {
+          return () -> new MCTSStrategy(0, time, 1, MCTSStrategy.Parallelism.TREE);
+        }
+        return MCTSStrategy::new;
+      default:
+        throw new IllegalArgumentException("Unknown strategy: " + name);
+    }
+  }
+
+  // plays every game on the thread pool and prints the results
+  private void run() {
+    List<Game> scheduled = new ArrayList<>();
+    for (int i = 0; i < this.entrants.size(); i++) {
+      for (int j = i + 1; j < this.entrants.size(); j++) {
+        for (int g = 0; g < this.games; g++) {
+          // alternate who plays Player A, which moves first, playing each opening from
+          // both sides
+          if (g % 2 == 0) {
+            scheduled.add(new Game(i, j, g / 2));
+          } else {
+            scheduled.add(new Game(j, i, g / 2));
+          }
+        }
+      }
+    }
+
+    ExecutorService pool = Executors.newFixedThreadPool(this.threads);
+    List<Future<Outcome>> results = new ArrayList<>();
+    long start = System.nanoTime();
+    for (Game game : scheduled) {
+      results.add(pool.submit(() -> this.play(game)));
+    }
+
+    int n = this.entrants.size();
+    Record[][] table = new Record[n][n];
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < n; j++) {
+        table[i][j] = new Record();
+      }
+    }
+    try {
+      for (int k = 0; k < scheduled.size(); k++) {
+        Game game = scheduled.get(k);
+        Outcome outcome = results.get(k).get();
+        if (outcome.forfeit == Player.A) {
+          table[game.first][game.second].forfeit(true);
+          table[game.second][game.first].forfeit(false);
+        } else if (outcome.forfeit == Player.B) {
+          table[game.first][game.second].forfeit(false);
+          table[game.second][game.first].forfeit(true);
+        } else {
+          table[game.first][game.second].add(outcome.diff);
+          table[game.second][game.first].add(-outcome.diff);
+        }
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      System.out.println("Tournament was interrupted.");
+      return;
+    }
+    catch (ExecutionException e) {
+      System.out.println("A game could not be played: " + e.getCause());
+      return;
+    }
+    finally {
+      pool.shutdownNow();
+    }
+    long millis = (System.nanoTime() - start) / 1_000_000;
+    this.print(table, scheduled.size(), millis);
+  }
+
+  // plays one game and returns how it ended
+  private Outcome play(Game game) {
+    ReversiModel model = new ReversiModel(this.size);
+    model.startGame();
+    ReversiStrategy first = this.entrants.get(game.first).strategy.get();
+    ReversiStrategy second = this.entrants.get(game.second).strategy.get();
+    Random random = new Random(game.seed);
+    int opening = this.randomMoves;
+    // a turn where a player cannot move is passed, and the game ends when both players pass
+    // in a row
+    int passes = 0;
+    while (!model.gameOver() && passes < 2) {
+      Player who = model.getPlayer();
+      List<NoDiscHexagon> legal = model.legalMoves(who);
+      NoDiscHexagon move = null;
+      if (!legal.isEmpty() && opening > 0) {
+        move = legal.get(random.nextInt(legal.size()));
+        opening--;
+      } else if (!legal.isEmpty()) {
+        move = (who == Player.A ? first : second).chooseTile(model, who);
+      }
+      if (!legal.isEmpty() && (move == null || move.countFlips(who.getColor()) == 0)) {
+        return new Outcome(0, who);
+      } else if (move == null) {
+        model.nextPlayer(who);
+        passes++;
+      } else {
+        model.makeMove(who, move);
+        passes = 0;
+      }
+    }
+    return new Outcome(model.getScore(Player.A) - model.getScore(Player.B), null);
+  }
+
+  // prints each strategy's record against each other strategy
+  private void print(Record[][] table, int played, long millis) {
+    System.out.printf("%d games on a board of size %d in %d ms on %d threads%n",
+            played, this.size, millis, this.threads);
+    System.out.printf("%-4s %-12s %-12s %7s %7s %7s %9s %9s%n",
+            "", "strategy", "opponent", "wins", "losses", "draws", "forfeits", "avg diff");
+    for (int i = 0; i < table.length; i++) {
+      for (int j = 0; j < table.length; j++) {
+        Record r = table[i][j];
+        if (i != j && r.games() > 0) {
+          System.out.printf("%-4d %-12s %-12s %7d %7d %7d %9d %9.2f%n", i + 1,
+                  this.entrants.get(i).name, this.entrants.get(j).name,
+                  r.wins, r.losses, r.draws, r.forfeits, r.averageDiff());
+        }
+      }
+    }
+  }
+
+  // a strategy taking part in the tournament. Each thread gets its own instance, since some
+  // strategies keep state between moves
+  private static final class Entrant {
+    private final String name;
+    private final ThreadLocal<ReversiStrategy> strategy;
+
+    Entrant(String name, Supplier<ReversiStrategy> factory) {
+      this.name = name;
+      this.strategy = ThreadLocal.withInitial(factory);
+    }
+  }
+
+  // one game to play: the entrant playing Player A, the entrant playing Player B and the seed
+  // of its random opening
+  private static final class Game {
+    private final int first;
+    private final int second;
+    private final long seed;
+
+    Game(int first, int second, long seed) {
+      this.first = first;
+      this.second = second;
+      this.seed = seed;
+    }
+  }
+
+  // how a game ended: Player A's discs minus Player B's discs at the end, or the player who
+  // forfeited it by making an illegal move, or null if nobody did
+  private static final class Outcome {
+    private final int diff;
+    private final Player forfeit;
+
+    Outcome(int diff, Player forfeit) {
+      this.diff = diff;
+      this.forfeit = forfeit;
+    }
+  }
+
+  // the results of one entrant against another. Games won or lost by forfeit count as wins
+  // and losses but not towards the average disc difference
+  private static final class Record {
+    private int wins;
+    private int losses;
+    private int draws;
+    private int forfeits;
+    private int unscored;
+    private long discs;
+
+    // adds a game the entrant finished with the given number of discs more than its opponent
+    void add(int diff) {
+      if (diff > 0) {
+        this.wins++;
+      } else if (diff < 0) {
+        this.losses++;
+      } else {
+        this.draws++;
+      }
+      this.discs += diff;
+    }
+
+    // adds a game that the entrant forfeited, or that its opponent forfeited
+    void forfeit(boolean lost) {
+      if (lost) {
+        this.losses++;
+        this.forfeits++;
+      } else {
+        this.wins++;
+      }
+      this.unscored++;
+    }
+
+    int games() {
+      return this.wins + this.losses + this.draws;
+    }
+
+    // the average disc difference of the games that were played to the end
+    double averageDiff() {
+      int scored = this.games() - this.unscored;
+      return scored == 0 ? 0 : (double) this.discs / scored;
+    }
+  }
+}
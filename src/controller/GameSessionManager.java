@@ -0,0 +1,439 @@
+package controller;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import model.AbstractHexagon;
+import model.Player;
+import model.ReadOnlyReversi;
+import model.ReversiModel;
+import model.ReversiPlayer;
+import view.ReversiView;
+
+/**
+ * Hosts many independent games of Reversi at once, each kept under a game id, with no windows.
+ * Moves sent for a game are made on that game, one at a time and in the order they were sent,
+ * and a side of a game may be played by a machine player, which answers on its own. Every game
+ * runs its turns on a small queue of its own over a pool of threads shared by all the games, so
+ * a game only holds a thread while a move is being made in it. The pool uses virtual threads
+ * when the Java runtime has them and one thread per processor when it does not, and machine
+ * players search on a second such pool. A game that nothing happened in for the idle time is
+ * ended and forgotten, so games left by their players do not use up memory.
+ */
+public class GameSessionManager {
+
+  // the view of every game, which shows nothing since the games have no windows
+  private static final ReversiView NO_VIEW = new NoView();
+
+  //the games being played, by game id
+  private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
+
+  //the id of the next game started
+  private final AtomicLong nextId = new AtomicLong(1);
+
+  //the time in nanoseconds a game may go without a move before it is ended
+  private final long idleNanos;
+
+  //runs the turns of every game, one game at a time on each queue
+  private final ExecutorService turns;
+
+  //runs the searches of the machine players of every game
+  private final ExecutorService searches;
+
+  //ends the games that were idle for too long
+  private final ScheduledExecutorService reaper;
+
+  /**
+   * Constructs a GameSessionManager with no games.
+   * @param idleTimeout The time in milliseconds a game may go without a move before it is
+   *                    ended and forgotten.
+   * @throws IllegalArgumentException if the idle time is not positive.
+   */
+  public GameSessionManager(long idleTimeout) {
+    if (idleTimeout <= 0) {
+      throw new IllegalArgumentException("Idle timeout must be positive");
+    }
+    this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+    this.turns = threads("Reversi game");
+    this.searches = threads("Reversi machine player");
+    this.reaper = Executors.newSingleThreadScheduledExecutor(daemons("Reversi session reaper"));
+    long period = Math.max(1, idleTimeout / 2);
+    this.reaper.scheduleAtFixedRate(this::reclaimIdle, period, period, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Starts a new game between two human players, whose moves are sent with move and pass.
+   * @param size The size of the board.
+   * @return The id of the new game.
+   * @throws IllegalArgumentException if the size is not a valid board size.
+   * @throws IllegalStateException if the manager was shut down.
+   */
+  public long newGame(int size) {
+    return this.newGame(size, null, null);
+  }
+
+  /**
+   * Starts a new game in which the given machine players play their sides, and the moves of
+   * any other side are sent with move and pass. A machine player keeps what it learns from one
+   * move to the next, so each must play in one game only, and the memory it keeps, such as the
+   * transposition table of an AlphaBetaStrategy, counts towards the memory of the game. The
+   * machine players are shut down when the game ends.
+   * @param size The size of the board.
+   * @param machineA The machine player that plays Player A, or null if a person does.
+   * @param machineB The machine player that plays Player B, or null if a person does.
+   * @return The id of the new game.
+   * @throws IllegalArgumentException if the size is not a valid board size or a machine player
+   *                                  plays for the wrong side.
+   * @throws IllegalStateException if the manager was shut down.
+   */
+  public long newGame(int size, ReversiPlayer machineA, ReversiPlayer machineB) {
+    if ((machineA != null && machineA.getPlay() != Player.A)
+            || (machineB != null && machineB.getPlay() != Player.B)) {
+      throw new IllegalArgumentException("Machine player plays for the wrong side");
+    } else if (this.reaper.isShutdown()) {
+      throw new IllegalStateException("Manager was shut down");
+    }
+    long id = this.nextId.getAndIncrement();
+    Session session = new Session(new ReversiModel(size), this.turns);
+    for (ReversiPlayer machine : new ReversiPlayer[] {machineA, machineB}) {
+      if (machine != null) {
+        MachineController controller = new MachineController(session.model, machine, NO_VIEW,
+                this.searches, session);
+        session.machines.add(controller);
+        session.machineSides.add(machine.getPlay());
+        session.model.addObservers(new TurnObserver(controller));
+      }
+    }
+    this.sessions.put(id, session);
+    session.execute(session.model::startGame);
+    return id;
+  }
+
+  /**
+   * Sends a move for the given player to the given game. The move is made after every move sent
+   * to the game before it.
+   * @param game The id of the game.
+   * @param who The player making the move.
+   * @param diagonal The diagonal of the tile to move in.
+   * @param row The row of the tile to move in.
+   * @return A Future that is done once the move was made, or failed with the reason it could
+   *         not be made.
+   * @throws IllegalArgumentException if there is no such game or a machine plays the player.
+   */
+  public Future<?> move(long game, Player who, int diagonal, int row) {
+    Session session = this.humanSession(game, who);
+    return session.submit(() -> {
+      AbstractHexagon where = session.model.getHex(diagonal, row);
+      session.model.makeMove(who, where);
+      return null;
+    });
+  }
+
+  /**
+   * Sends a pass for the given player to the given game. The pass is made after every move sent
+   * to the game before it.
+   * @param game The id of the game.
+   * @param who The player passing.
+   * @return A Future that is done once the turn was passed, or failed with the reason it could
+   *         not be.
+   * @throws IllegalArgumentException if there is no such game or a machine plays the player.
+   */
+  public Future<?> pass(long game, Player who) {
+    Session session = this.humanSession(game, who);
+    return session.submit(() -> {
+      if (session.model.getPlayer() != who) {
+        throw new IllegalArgumentException("Not this player's turn");
+      }
+      session.model.nextPlayer(who);
+      return null;
+    });
+  }
+
+  /**
+   * Looks at the given game once every move sent to it before has been made, and gives back
+   * what the given query finds. The query runs on the game's turn, so it must not keep the
+   * game or change it.
+   * @param game The id of the game.
+   * @param query What to find out about the game.
+   * @param <T> The type of what the query finds.
+   * @return A Future of what the query found.
+   * @throws IllegalArgumentException if there is no such game.
+   */
+  public <T> Future<T> inspect(long game, Function<ReadOnlyReversi, T> query) {
+    Session session = this.session(game);
+    return session.submit(() -> query.apply(session.model));
+  }
+
+  /**
+   * Ends the given game and forgets it. Moves sent to it and not yet made are dropped, and its
+   * machine players stop thinking. Nothing happens if there is no such game.
+   * @param game The id of the game.
+   */
+  public void endGame(long game) {
+    Session session = this.sessions.remove(game);
+    if (session != null) {
+      session.close();
+    }
+  }
+
+  /**
+   * Ends every game that went without a move for longer than the idle time. This is done
+   * every half of the idle time anyway.
+   * @return The number of games ended.
+   */
+  public int reclaimIdle() {
+    long now = System.nanoTime();
+    int ended = 0;
+    for (Map.Entry<Long, Session> entry : this.sessions.entrySet()) {
+      Session session = entry.getValue();
+      if (now - session.lastUsed > this.idleNanos
+              && this.sessions.remove(entry.getKey(), session)) {
+        session.close();
+        ended++;
+      }
+    }
+    return ended;
+  }
+
+  /**
+   * Returns the number of games being played.
+   * @return The number of games.
+   */
+  public int games() {
+    return this.sessions.size();
+  }
+
+  /**
+   * Ends every game and stops the threads they were played on. No games can be started after.
+   */
+  public void shutdown() {
+    this.reaper.shutdownNow();
+    for (Long game : new ArrayList<>(this.sessions.keySet())) {
+      this.endGame(game);
+    }
+    this.searches.shutdownNow();
+    this.turns.shutdown();
+  }
+
+  // returns the game with the given id
+  private Session session(long game) {
+    Session session = this.sessions.get(game);
+    if (session == null) {
+      throw new IllegalArgumentException("No game " + game);
+    }
+    return session;
+  }
+
+  // returns the game with the given id, if the given player is not played by a machine in it
+  private Session humanSession(long game, Player who) {
+    Session session = this.session(game);
+    if (session.machineSides.contains(who)) {
+      throw new IllegalArgumentException("Player is played by a machine");
+    }
+    return session;
+  }
+
+  // returns a pool of virtual threads if the Java runtime has them, or else one thread for
+  // each processor
+  private static ExecutorService threads(String name) {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+              .invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+              daemons(name));
+    }
+  }
+
+  // makes daemon threads with the given name, so the pools do not keep the program running
+  private static ThreadFactory daemons(String name) {
+    return r -> {
+      Thread thread = new Thread(r, name);
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * One game, with the queue its turns run on. Tasks run one at a time in the order they were
+   * given, on whichever thread of the shared pool is free, so a game with nothing to do holds
+   * no thread.
+   */
+  private static final class Session implements Executor {
+    //the game itself
+    private final ReversiModel model;
+
+    //the machine players of the game, and the sides they play
+    private final List<MachineController> machines = new ArrayList<>(2);
+    private final List<Player> machineSides = new ArrayList<>(2);
+
+    //the pool the queue runs on
+    private final Executor pool;
+
+    //the tasks waiting to run, and whether one is running. Guarded by this session
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private boolean running;
+    private boolean closed;
+
+    //the System.nanoTime of the last task given to the game or run by it
+    private volatile long lastUsed = System.nanoTime();
+
+    private Session(ReversiModel model, Executor pool) {
+      this.model = model;
+      this.pool = pool;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+      synchronized (this) {
+        if (this.closed) {
+          throw new RejectedExecutionException("Game has ended");
+        }
+        this.lastUsed = System.nanoTime();
+        this.tasks.add(task);
+        if (this.running) {
+          return;
+        }
+        this.running = true;
+      }
+      try {
+        this.pool.execute(this::drain);
+      } catch (RejectedExecutionException e) {
+        synchronized (this) {
+          this.running = false;
+          this.tasks.clear();
+        }
+        throw e;
+      }
+    }
+
+    // runs the given task on the game's turn and returns its Future
+    private <T> Future<T> submit(Callable<T> task) {
+      FutureTask<T> future = new FutureTask<>(task);
+      this.execute(future);
+      return future;
+    }
+
+    // runs the waiting tasks until there are none left
+    private void drain() {
+      while (true) {
+        Runnable task;
+        synchronized (this) {
+          task = this.tasks.poll();
+          if (task == null) {
+            this.running = false;
+            return;
+          }
+        }
+        this.lastUsed = System.nanoTime();
+        try {
+          task.run();
+        } catch (RuntimeException e) {
+          // a failed turn is dropped, so the turns after it still run
+        }
+      }
+    }
+
+    // drops the waiting tasks, cancelling the ones sent with move, pass and inspect so that no
+    // one waits on them for ever, and stops the machine players
+    private void close() {
+      List<Runnable> dropped;
+      synchronized (this) {
+        this.closed = true;
+        dropped = new ArrayList<>(this.tasks);
+        this.tasks.clear();
+      }
+      for (Runnable task : dropped) {
+        if (task instanceof Future) {
+          ((Future<?>) task).cancel(false);
+        }
+      }
+      for (MachineController machine : this.machines) {
+        machine.abandon();
+      }
+    }
+  }
+
+  /**
+   * Passes the changes of turn on to a machine player, leaving out the refreshes of a view
+   * the games do not have.
+   */
+  private static final class TurnObserver implements ModelStatusObservers {
+    private final MachineController machine;
+
+    private TurnObserver(MachineController machine) {
+      this.machine = machine;
+    }
+
+    @Override
+    public void changePlayer() {
+      this.machine.changePlayer();
+    }
+
+    @Override
+    public void setView(ReversiView view) {
+      // the games have no views
+    }
+
+    @Override
+    public void refreshView() {
+      // the games have no views
+    }
+  }
+
+  /**
+   * A view that shows nothing, for games with no windows.
+   */
+  private static final class NoView implements ReversiView {
+    @Override
+    public void makeVisible() {
+      // nothing to show
+    }
+
+    @Override
+    public void refresh() {
+      // nothing to show
+    }
+
+    @Override
+    public void addClickListener() {
+      // nothing to click
+    }
+
+    @Override
+    public void addFeatures(PlayerActions features) {
+      // nothing to click
+    }
+
+    @Override
+    public AbstractHexagon selectedTile() {
+      return null;
+    }
+
+    @Override
+    public void showMessage(String message) {
+      // nothing to show
+    }
+
+    @Override
+    public void showMessageInvalidMoves(String s) {
+      // nothing to show
+    }
+  }
+}
@@ -1,15 +1,36 @@
 package controller;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.swing.SwingUtilities;
+
 import model.NoDiscHexagon;
 import model.Player;
 import model.Reversi;
+import model.ReversiModelDeepCopy;
 import model.ReversiPlayer;
 import view.ReversiView;
 
 /**
  * A class that represents the controller for a machine player.
  * In our representation of Reversi, a machine player requires
- * a strategy in order to compute their next move.
+ * a strategy in order to compute their next move. The strategy
+ * runs on a copy of the game on a thread of its own, so the game
+ * and its views are never held up while the machine player thinks,
+ * and the move it chooses is made on the thread the game is played
+ * on, which is the Swing event thread unless another is given.
+ * A move chosen for a position the game has since left is dropped.
+ * A machine player that ponders also thinks while the other player
+ * does: it guesses the other player's move, and if the guess is
+ * right when the move is made, it plays the answer it found, or
+ * keeps the search that is still looking for it, instead of
+ * starting again. A wrong guess is stopped and forgotten.
  */
 public class MachineController implements ReversiController, PlayerActions, ModelStatusObservers {
 
@@ -17,17 +38,127 @@ public class MachineController implements ReversiController, PlayerActions, Mode
   private final ReversiPlayer player;
   private ReversiView view;
 
+  //runs the strategy off the thread the game is played on
+  private final ExecutorService searches;
+
+  //whether the searches executor was made by this controller, and so is shut down with it
+  private final boolean ownsSearches;
+
+  //runs the moves the strategy chose on the thread the game is played on
+  private final Executor game;
+
+  //the search running now, or null if there is none. Only set on the game thread
+  private volatile Future<?> pending;
+
+  //set once the game is abandoned, after which no more moves are made
+  private volatile boolean abandoned;
+
+  //guesses the other player's moves while pondering, or null if this player does not ponder
+  private final ReversiPlayer opponent;
+
+  //the guess being pondered on now, or null if there is none. Only set on the game thread
+  private volatile Ponder ponder;
+
+  //held while the player's strategy runs, so a ponder that was stopped and a search that
+  //follows it never run the strategy at the same time. A search waits for it with
+  //lockInterruptibly, so abandoning the game stops a search still waiting on a stopped ponder
+  private final ReentrantLock thinking = new ReentrantLock();
+
 
   /**
-   * Constructs an instance of a machine player.
+   * Constructs an instance of a machine player that thinks on a thread of its own and makes
+   * its moves on the Swing event thread.
    * @param model The Reversi model responsible for the functionality.
    * @param player The player of the game
    * @param view The visual representation of the Reversi game.
    */
   public MachineController(Reversi model, ReversiPlayer player, ReversiView view) {
+    this(model, player, view, Executors.newSingleThreadExecutor(r -> {
+      Thread thread = new Thread(r, "Reversi machine player");
+      // a game left thinking does not keep the program running
+      thread.setDaemon(true);
+      return thread;
+    }), SwingUtilities::invokeLater, true, null);
+  }
+
+  /**
+   * Constructs an instance of a machine player that thinks on a thread of its own, makes its
+   * moves on the Swing event thread and ponders while the other player thinks.
+   * @param model The Reversi model responsible for the functionality.
+   * @param player The player of the game
+   * @param view The visual representation of the Reversi game.
+   * @param opponent The player that guesses the other player's moves, so this player can think
+   *                 about the answer before the move is made.
+   * @throws IllegalArgumentException if the opponent is null or plays for the same player.
+   */
+  public MachineController(Reversi model, ReversiPlayer player, ReversiView view,
+                           ReversiPlayer opponent) {
+    this(model, player, view, Executors.newSingleThreadExecutor(r -> {
+      Thread thread = new Thread(r, "Reversi machine player");
+      // a game left thinking does not keep the program running
+      thread.setDaemon(true);
+      return thread;
+    }), SwingUtilities::invokeLater, true, checkOpponent(player, opponent));
+  }
+
+  /**
+   * Constructs an instance of a machine player that thinks on the given executor and makes its
+   * moves on the given game thread. The executor is not shut down when the game is abandoned,
+   * so that it can be shared by many games.
+   * @param model The Reversi model responsible for the functionality.
+   * @param player The player of the game
+   * @param view The visual representation of the Reversi game.
+   * @param searches The executor the strategy runs on.
+   * @param game The executor that runs every change to the game, one at a time.
+   * @throws IllegalArgumentException if either executor is null.
+   */
+  public MachineController(Reversi model, ReversiPlayer player, ReversiView view,
+                           ExecutorService searches, Executor game) {
+    this(model, player, view, searches, game, false, null);
+  }
+
+  /**
+   * Constructs an instance of a machine player that thinks on the given executor, makes its
+   * moves on the given game thread and ponders while the other player thinks. The executor is
+   * not shut down when the game is abandoned, so that it can be shared by many games.
+   * @param model The Reversi model responsible for the functionality.
+   * @param player The player of the game
+   * @param view The visual representation of the Reversi game.
+   * @param searches The executor the strategy runs on.
+   * @param game The executor that runs every change to the game, one at a time.
+   * @param opponent The player that guesses the other player's moves, so this player can think
+   *                 about the answer before the move is made.
+   * @throws IllegalArgumentException if either executor or the opponent is null, or the
+   *                                  opponent plays for the same player.
+   */
+  public MachineController(Reversi model, ReversiPlayer player, ReversiView view,
+                           ExecutorService searches, Executor game, ReversiPlayer opponent) {
+    this(model, player, view, searches, game, false, checkOpponent(player, opponent));
+  }
+
+  private MachineController(Reversi model, ReversiPlayer player, ReversiView view,
+                            ExecutorService searches, Executor game, boolean ownsSearches,
+                            ReversiPlayer opponent) {
+    if (searches == null || game == null) {
+      throw new IllegalArgumentException("Executors cannot be null");
+    }
     this.model = model;
     this.player = player;
     this.view = view;
+    this.searches = searches;
+    this.game = game;
+    this.ownsSearches = ownsSearches;
+    this.opponent = opponent;
+  }
+
+  // returns the opponent if it can guess the moves of the given player's opponent
+  private static ReversiPlayer checkOpponent(ReversiPlayer player, ReversiPlayer opponent) {
+    if (opponent == null) {
+      throw new IllegalArgumentException("Opponent cannot be null");
+    } else if (opponent.getPlay() == player.getPlay()) {
+      throw new IllegalArgumentException("Opponent must play for the other player");
+    }
+    return opponent;
   }
 
   /**
@@ -62,13 +193,113 @@ public class MachineController implements ReversiController, PlayerActions, Mode
    * minimizing the amount of tiles the opponent can capture,
    * and combining all the strategies into one strategy. If the
    * machine player makes an invalid move the players will be
-   * notified via a popup message.
+   * notified via a popup message. The strategy is started on a
+   * copy of the game and this method returns at once; the move
+   * is made later on the game thread. If the player pondered on
+   * the position the game is in, the move it found is made, or
+   * the ponder goes on as the search, instead. Nothing happens if
+   * the player is already thinking or the game was abandoned.
+   * Must be called on the game thread.
    */
   @Override
   public void playerMove() {
+    if (this.abandoned || this.pending != null) {
+      return;
+    }
+    Player who = model.getPlayer();
+    long position = model.positionHash();
+    if (this.ponderHit(who, position)) {
+      return;
+    }
+    Reversi copy = this.copyModel();
+    // kept before it starts, so a quick search or abandon always finds it
+    FutureTask<Void> search = new FutureTask<>(() -> this.think(copy, who, position), null);
+    this.pending = search;
     try {
-      NoDiscHexagon toMove = player.play(this.model);
-      model.makeMove(model.getPlayer(), toMove);
+      this.searches.execute(search);
+    }
+    catch (RejectedExecutionException e) {
+      // the executor was shut down, so the game is over for this player
+      this.pending = null;
+      this.abandoned = true;
+    }
+  }
+
+  /**
+   * Stops the machine player for good: the search running now, if any, is interrupted, its
+   * move is dropped and no more moves are made. The threads the player's strategy searches
+   * on, and those of the player it guesses the other player's moves with, are shut down, and
+   * so is the thread the player thinks on unless it was given to the constructor. May be
+   * called on any thread.
+   */
+  public void abandon() {
+    this.abandoned = true;
+    Future<?> search = this.pending;
+    if (search != null) {
+      search.cancel(true);
+    }
+    Ponder guess = this.ponder;
+    if (guess != null) {
+      guess.task.cancel(true);
+    }
+    this.player.shutdown();
+    if (this.opponent != null) {
+      this.opponent.shutdown();
+    }
+    if (this.ownsSearches) {
+      this.searches.shutdownNow();
+    }
+  }
+
+  // runs the strategy on the copy of the game and hands the move to the game thread. Runs on
+  // the searches executor
+  private void think(Reversi copy, Player who, long position) {
+    NoDiscHexagon choice;
+    try {
+      this.thinking.lockInterruptibly();
+      try {
+        choice = player.play(copy);
+      } finally {
+        this.thinking.unlock();
+      }
+    }
+    catch (InterruptedException e) {
+      // the game was abandoned while a stopped ponder still held the strategy
+      return;
+    }
+    catch (RuntimeException e) {
+      // made below, where it is reported as an invalid move, so the game is not left waiting
+      choice = null;
+    }
+    if (Thread.interrupted()) {
+      // the game was abandoned, which also leaves the thread clear for its next task
+      return;
+    }
+    NoDiscHexagon chosen = choice;
+    try {
+      this.game.execute(() -> this.move(who, chosen, position));
+    }
+    catch (RejectedExecutionException e) {
+      // the game thread was shut down, so nothing is left to move in
+      this.abandoned = true;
+    }
+  }
+
+  // makes the chosen move if the game is still where it was when the search started, or else
+  // starts thinking again if it is still this player's turn. Runs on the game thread
+  private void move(Player who, NoDiscHexagon choice, long position) {
+    this.pending = null;
+    if (this.abandoned) {
+      return;
+    } else if (model.getPlayer() != who || model.positionHash() != position) {
+      if (!model.gameOver() && model.getPlayer().equals(this.player.getPlay())) {
+        this.playerMove();
+      }
+      return;
+    }
+    try {
+      model.makeMove(who,
+              choice == null ? null : model.getHex(choice.getDiagonal(), choice.getRow()));
     }
     catch (IllegalArgumentException | IllegalStateException e) {
       view.showMessageInvalidMoves("Invalid move");
@@ -76,6 +307,135 @@ public class MachineController implements ReversiController, PlayerActions, Mode
     }
   }
 
+  // starts guessing the other player's move and thinking about the answer, if this player
+  // ponders and is not pondering already. Runs on the game thread
+  private void startPondering() {
+    if (this.opponent == null || this.abandoned || this.ponder != null
+            || !model.getPlayer().equals(this.opponent.getPlay())) {
+      return;
+    }
+    Reversi copy = this.copyModel();
+    Ponder guess = new Ponder();
+    guess.task = new FutureTask<>(() -> this.ponder(copy, guess), null);
+    this.ponder = guess;
+    try {
+      this.searches.execute(guess.task);
+    }
+    catch (RejectedExecutionException e) {
+      // the executor was shut down, so the game is over for this player
+      this.ponder = null;
+      this.abandoned = true;
+    }
+  }
+
+  // guesses the other player's move on the copy of the game, plays it and thinks about the
+  // answer, then hands the answer to the game thread. Runs on the searches executor
+  private void ponder(Reversi copy, Ponder guess) {
+    NoDiscHexagon choice = null;
+    boolean failed = false;
+    try {
+      this.thinking.lockInterruptibly();
+      try {
+        NoDiscHexagon reply = this.opponent.play(copy);
+        if (reply == null) {
+          // the other player is expected to pass, which gives nothing to ponder on
+          failed = true;
+        } else {
+          copy.makeSearchMove(this.opponent.getPlay(),
+                  copy.getHex(reply.getDiagonal(), reply.getRow()));
+          guess.position = copy.positionHash();
+          guess.guessed = true;
+          choice = player.play(copy);
+        }
+      } finally {
+        this.thinking.unlock();
+      }
+    }
+    catch (InterruptedException e) {
+      // stopped before it could start
+      failed = true;
+    }
+    catch (RuntimeException e) {
+      // a ponder still wanted after this searches again from the start
+      failed = true;
+    }
+    if (Thread.interrupted()) {
+      // a stopped ponder may have cut its search short, so its answer is not used, and the
+      // thread is left clear for its next task
+      failed = true;
+    }
+    NoDiscHexagon chosen = choice;
+    boolean gaveUp = failed;
+    try {
+      this.game.execute(() -> this.pondered(guess, chosen, gaveUp));
+    }
+    catch (RejectedExecutionException e) {
+      // the game thread was shut down, so nothing is left to move in
+      this.abandoned = true;
+    }
+  }
+
+  // keeps the answer of a finished ponder until the other player moves, or makes it now if
+  // the guess was already found right. Runs on the game thread
+  private void pondered(Ponder guess, NoDiscHexagon choice, boolean failed) {
+    if (guess.hit) {
+      if (failed) {
+        this.pending = null;
+        this.playerMove();
+      } else {
+        this.move(this.player.getPlay(), choice, guess.position);
+      }
+    } else if (this.ponder == guess && !failed) {
+      guess.done = true;
+      guess.choice = choice;
+    }
+  }
+
+  // ends the ponder, and returns true if it guessed the given position and has become the
+  // search for it. Runs on the game thread
+  private boolean ponderHit(Player who, long position) {
+    Ponder guess = this.ponder;
+    this.ponder = null;
+    if (guess == null) {
+      return false;
+    } else if (!guess.guessed || guess.position != position) {
+      // a wrong guess, or one not made in time, is stopped so the search can start
+      guess.task.cancel(true);
+      return false;
+    }
+    guess.hit = true;
+    this.pending = guess.task;
+    if (guess.done) {
+      NoDiscHexagon choice = guess.choice;
+      // made later, like any other move, so the observers are not called back from here
+      try {
+        this.game.execute(() -> this.move(who, choice, position));
+      }
+      catch (RejectedExecutionException e) {
+        this.abandoned = true;
+      }
+    }
+    return true;
+  }
+
+  // stops and forgets the ponder, if there is one. Runs on the game thread
+  private void stopPondering() {
+    Ponder guess = this.ponder;
+    this.ponder = null;
+    if (guess != null) {
+      guess.task.cancel(true);
+    }
+  }
+
+  // returns a copy of the game that shares nothing with it
+  private Reversi copyModel() {
+    try {
+      return new ReversiModelDeepCopy(this.model).clone().model;
+    } catch (CloneNotSupportedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   /**
    * Allows the machine player to pass their turn if there
    * are no possible moves available.
@@ -103,6 +463,7 @@ public class MachineController implements ReversiController, PlayerActions, Mode
   @Override
   public void changePlayer() {
     if (model.gameOver()) {
+      this.stopPondering();
       view.showMessage("Game is over. Your score is: " + model.getScore(this.player.getPlay()));
     }
     else if (model.getPlayer().equals(this.player.getPlay())) {
@@ -111,5 +472,28 @@ public class MachineController implements ReversiController, PlayerActions, Mode
 
       this.playerMove();
     }
+    else {
+      this.startPondering();
+    }
+  }
+
+  /**
+   * One guess of the other player's move and the answer to it. The fields written by the
+   * pondering thread are volatile, and the others are only used on the game thread.
+   */
+  private static final class Ponder {
+    //the ponder running on the searches executor
+    private FutureTask<Void> task;
+
+    //whether the move was guessed yet, and the position it leads to
+    private volatile boolean guessed;
+    private volatile long position;
+
+    //set once the other player made the guessed move, so the ponder is the search for it
+    private boolean hit;
+
+    //whether the answer was found, and the answer, or null to pass
+    private boolean done;
+    private NoDiscHexagon choice;
   }
 }
@@ -0,0 +1,790 @@
+package model;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+import controller.ModelStatusObservers;
+
+/**
+ * A Reversi implementation that packs the hexagonal board into two bitsets, one for each color,
+ * with a bit for every tile in the order given by HexGeometry. Move generation, flipping and
+ * scoring are done with bit operations over precomputed ray masks, so the board can be copied
+ * and played on far faster than the linked tiles of ReversiModel. It follows the same rules and
+ * throws the same exceptions as ReversiModel, so it can be used wherever a Reversi is expected.
+ */
+public class BitboardReversi implements Reversi {
+
+  // the discs made stable by a move that made none stable, shared by every such move
+  private static final int[] NONE_STABILIZED = new int[0];
+
+  // current state of the game
+  private boolean gameStarted;
+
+  // the player whose turn it is
+  private Player turn;
+
+  // the precomputed layout shared by every board of this size
+  private final HexGeometry geometry;
+
+  // one bit per tile holding a black disc and one bit per tile holding a white disc
+  private final long[] black;
+  private final long[] white;
+
+  // the read-only tiles handed out by getGrid and getHex, or null until they are first asked
+  // for, since searches copy boards often and never look at the tiles
+  private CellViews views;
+
+  // the opponent's discs before the last search move, used to find the discs it flipped
+  private final long[] before;
+
+  // the keys of the position hash and the hash of the discs on the board, without the side key
+  private final Zobrist zobrist;
+  private long discHash;
+
+  // the discs that can never be flipped, or null if they have never been looked for, and
+  // whether they are kept up to date move by move
+  private Stability stability;
+  private boolean tracking;
+
+  private final List<ModelStatusObservers> controllers = new ArrayList<>();
+
+  /**
+   * Constructs a BitboardReversi of the given size in the same starting position as a
+   * ReversiModel of that size. The initial turn is set to Player A.
+   *
+   * @param size the number of tiles along each side of the board.
+   * @throws IllegalArgumentException if the size of the board is less than or equal to 1.
+   */
+  public BitboardReversi(int size) {
+    if (size <= 1) {
+      throw new IllegalArgumentException("Size must be greater than 1");
+    }
+    this.gameStarted = false;
+    this.turn = Player.A;
+    this.geometry = HexGeometry.of(size);
+    this.black = new long[this.geometry.words()];
+    this.white = new long[this.geometry.words()];
+    this.before = new long[this.geometry.words()];
+    this.zobrist = Zobrist.of(size);
+    this.setDisc(size - 1, size - 2, this.white);
+    this.setDisc(size - 2, size - 1, this.white);
+    this.setDisc(size, size, this.white);
+    this.setDisc(size - 2, size - 2, this.black);
+    this.setDisc(size - 1, size, this.black);
+    this.setDisc(size, size - 1, this.black);
+    this.discHash = this.hashDiscs();
+  }
+
+  /**
+   * Default Constructor for BitboardReversi, using the default board size of 6.
+   */
+  public BitboardReversi() {
+    this(6);
+  }
+
+  /**
+   * Constructs a BitboardReversi holding the same position, turn and game state as the given
+   * game. Observers of the given game are not copied.
+   *
+   * @param other the game to copy.
+   * @throws IllegalArgumentException if the given game is null.
+   */
+  public BitboardReversi(ReadOnlyReversi other) {
+    if (other == null) {
+      throw new IllegalArgumentException("Game cannot be null");
+    }
+    this.gameStarted = other.gameState();
+    this.turn = other.getPlayer();
+    this.geometry = HexGeometry.of(other.getBoardSize());
+    this.black = new long[this.geometry.words()];
+    this.white = new long[this.geometry.words()];
+    this.before = new long[this.geometry.words()];
+    this.zobrist = Zobrist.of(other.getBoardSize());
+    if (other instanceof BitboardReversi) {
+      BitboardReversi board = (BitboardReversi) other;
+      System.arraycopy(board.black, 0, this.black, 0, this.black.length);
+      System.arraycopy(board.white, 0, this.white, 0, this.white.length);
+      this.discHash = board.discHash;
+      if (board.stability != null) {
+        this.stability = new Stability(board.stability, this.black, this.white);
+      }
+      this.tracking = board.tracking;
+      return;
+    }
+    for (int c = 0; c < this.geometry.cellCount(); c++) {
+      AbstractHexagon hex = other.getHex(this.geometry.diagonal(c), this.geometry.row(c));
+      if (hex instanceof FilledHexagon) {
+        Color col = ((FilledHexagon) hex).getColor();
+        this.setBit(col.equals(Color.BLACK) ? this.black : this.white, c);
+      }
+    }
+    this.discHash = this.hashDiscs();
+  }
+
+  /**
+   * Sets this board to the same position, turn and game state as the given board of the same
+   * size without allocating anything, so that one board can be reset over and over again.
+   * Stable discs are kept track of if they are on the given board. Observers are not copied.
+   *
+   * @param other the board to copy.
+   * @throws IllegalArgumentException if the given board is null or of another size.
+   */
+  public void copyFrom(BitboardReversi other) {
+    if (other == null) {
+      throw new IllegalArgumentException("Board cannot be null");
+    } else if (other.geometry != this.geometry) {
+      throw new IllegalArgumentException("Boards must be the same size");
+    }
+    this.gameStarted = other.gameStarted;
+    this.turn = other.turn;
+    System.arraycopy(other.black, 0, this.black, 0, this.black.length);
+    System.arraycopy(other.white, 0, this.white, 0, this.white.length);
+    this.discHash = other.discHash;
+    if (other.stability == null) {
+      this.stability = null;
+    } else if (this.stability == null) {
+      this.stability = new Stability(other.stability, this.black, this.white);
+    } else {
+      this.stability.copyFrom(other.stability);
+    }
+    this.tracking = other.tracking;
+  }
+
+  // the read-only tiles of the board, made the first time they are needed
+  private CellViews views() {
+    if (this.views == null) {
+      this.views = new CellViews(this.geometry, this::colorAt);
+    }
+    return this.views;
+  }
+
+  // the hash of the discs on the board, computed from scratch
+  private long hashDiscs() {
+    long hash = 0;
+    for (int c = 0; c < this.geometry.cellCount(); c++) {
+      if (this.testBit(this.black, c)) {
+        hash ^= this.zobrist.disc(Player.A, c);
+      } else if (this.testBit(this.white, c)) {
+        hash ^= this.zobrist.disc(Player.B, c);
+      }
+    }
+    return hash;
+  }
+
+  // places a disc in the tile with the given coordinates in the given bitset
+  private void setDisc(int diagonal, int row, long[] bits) {
+    this.setBit(bits, this.geometry.index(diagonal, row));
+  }
+
+  /**
+   * Starts the game by setting the current state of the game to started and notifying the
+   * observers that it is the first player's turn.
+   */
+  public void startGame() {
+    this.gameStarted = true;
+    for (ModelStatusObservers ms : controllers) {
+      ms.changePlayer();
+    }
+  }
+
+  /**
+   * Returns the current state of the game.
+   * @return True if the game has started.
+   */
+  @Override
+  public boolean gameState() {
+    return this.gameStarted;
+  }
+
+  /**
+   * Changes the turn to the next player.
+   */
+  @Override
+  public void nextPlayer(Player who) {
+    if (who.equals(Player.A)) {
+      this.turn = Player.B;
+    }
+    else {
+      this.turn = Player.A;
+    }
+    for (ModelStatusObservers ms : controllers) {
+      ms.changePlayer();
+    }
+  }
+
+  /**
+   * Returns the size of this game board.
+   *
+   * @return the size of the board.
+   */
+  @Override
+  public int getBoardSize() {
+    return this.geometry.getSize();
+  }
+
+  /**
+   * Returns the player whose turn it is.
+   */
+  @Override
+  public Player getPlayer() {
+    return this.turn;
+  }
+
+  /**
+   * Returns the layout of this board, which maps tile coordinates to the cell indexes used by
+   * the bitsets.
+   *
+   * @return the geometry of this board.
+   */
+  public HexGeometry getGeometry() {
+    return this.geometry;
+  }
+
+  /**
+   * Moves a disc of the current player's color to the given tile. The result of a legal move is
+   * that all of the opposite player's discs in all directions that are sandwiched between two
+   * discs of the current player get flipped to the current player's. After a valid move is made,
+   * the player's turn is changed.
+   *
+   * @param who   the Player who wants to make a move
+   * @param where the tile where the current player wants to make a move
+   * @throws IllegalStateException    if the game hasn't been started yet
+   * @throws IllegalArgumentException if the wrong player is making a move, if the player or tile
+   *                                  to make a move in is an invalid null input or if the move
+   *                                  does not flip any discs
+   * @throws IllegalStateException    if the tile is not a tile with no disc in it.
+   */
+  @Override
+  public void makeMove(Player who, AbstractHexagon where) {
+    if (!gameStarted) {
+      throw new IllegalStateException("Game has not been started");
+    } else if (who == null || where == null) {
+      throw new IllegalArgumentException();
+    } else if (where instanceof EmptyHexagon || where instanceof FilledHexagon) {
+      throw new IllegalStateException();
+    } else if (who != this.turn || !(where instanceof NoDiscHexagon)) {
+      throw new IllegalArgumentException();
+    }
+    NoDiscHexagon hex = (NoDiscHexagon) where;
+    int cell = this.geometry.index(hex.getDiagonal(), hex.getRow());
+    if (cell < 0) {
+      throw new IllegalArgumentException();
+    } else if (this.occupied(cell)) {
+      // the tile was handed out before a disc was placed in it
+      throw new IllegalStateException();
+    }
+    if (this.play(who, cell) == 0) {
+      throw new IllegalArgumentException();
+    }
+    for (ModelStatusObservers ms : controllers) {
+      ms.refreshView();
+    }
+    this.nextPlayer(who);
+  }
+
+  @Override
+  public MoveUndo makeSearchMove(Player who, AbstractHexagon where) {
+    if (who == null || where == null) {
+      throw new IllegalArgumentException();
+    } else if (where instanceof EmptyHexagon || where instanceof FilledHexagon) {
+      throw new IllegalStateException();
+    } else if (!(where instanceof NoDiscHexagon)) {
+      throw new IllegalArgumentException();
+    }
+    NoDiscHexagon hex = (NoDiscHexagon) where;
+    int cell = this.geometry.index(hex.getDiagonal(), hex.getRow());
+    if (cell < 0) {
+      throw new IllegalArgumentException();
+    } else if (this.occupied(cell)) {
+      throw new IllegalStateException();
+    }
+    return this.makeSearchMove(who, cell);
+  }
+
+  /**
+   * Makes a move for the given player in the given cell the same way makeSearchMove does for a
+   * tile, and returns the record unmakeMove uses to take it back.
+   *
+   * @param who  the player placing the disc.
+   * @param cell the cell index of an empty tile.
+   * @return the record needed to take the move back.
+   * @throws IllegalArgumentException if the move does not capture any discs.
+   * @throws IllegalStateException    if the cell already has a disc in it.
+   */
+  public MoveUndo makeSearchMove(Player who, int cell) {
+    if (this.occupied(cell)) {
+      throw new IllegalStateException();
+    }
+    long[] opp = this.discs(this.opponent(who));
+    System.arraycopy(opp, 0, this.before, 0, opp.length);
+    int count = this.play(who, cell);
+    if (count == 0) {
+      throw new IllegalArgumentException();
+    }
+    int[] flipped = new int[count];
+    int k = 0;
+    for (int w = 0; w < opp.length; w++) {
+      long bits = this.before[w] & ~opp[w];
+      while (bits != 0) {
+        flipped[k++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+        bits &= bits - 1;
+      }
+    }
+    int[] stabilized = null;
+    if (this.tracking) {
+      stabilized = this.stability.addedCount() == 0
+              ? NONE_STABILIZED : new int[this.stability.addedCount()];
+      for (int s = 0; s < stabilized.length; s++) {
+        stabilized[s] = this.stability.added(s);
+      }
+    }
+    MoveUndo undo = new MoveUndo(who, cell, flipped, this.turn, stabilized);
+    this.turn = this.opponent(who);
+    return undo;
+  }
+
+  @Override
+  public void unmakeMove(MoveUndo undo) {
+    if (undo == null) {
+      throw new IllegalArgumentException();
+    }
+    long[] own = this.discs(undo.getPlayer());
+    long[] opp = this.discs(this.opponent(undo.getPlayer()));
+    if (!this.testBit(own, undo.getCell())) {
+      throw new IllegalStateException("Move is not on the board");
+    }
+    own[undo.getCell() >>> 6] &= ~(1L << undo.getCell());
+    this.discHash ^= this.zobrist.disc(undo.getPlayer(), undo.getCell());
+    for (int k = 0; k < undo.getFlipCount(); k++) {
+      int cell = undo.getFlipped(k);
+      own[cell >>> 6] &= ~(1L << cell);
+      this.setBit(opp, cell);
+      this.discHash ^= this.zobrist.flip(cell);
+    }
+    this.turn = undo.getPreviousTurn();
+    if (this.tracking) {
+      if (undo.getStabilized() != null) {
+        this.stability.remove(undo.getStabilized());
+      } else {
+        // the move was made before stable discs were kept track of
+        this.stability.recompute();
+      }
+    }
+  }
+
+  /**
+   * Places a disc of the given player in the given cell and flips every disc it captures,
+   * without checking whose turn it is or notifying observers. Nothing is changed if the cell
+   * already has a disc in it or the move would not capture any discs.
+   *
+   * @param who  the player placing the disc.
+   * @param cell the cell index of an empty tile.
+   * @return the number of discs flipped, or 0 if the move is not legal.
+   */
+  public int play(Player who, int cell) {
+    if (this.occupied(cell)) {
+      return 0;
+    }
+    long[] own = this.discs(who);
+    long[] opp = this.discs(this.opponent(who));
+    int flipped = 0;
+    for (int dir = 0; dir < HexGeometry.DIRECTIONS; dir++) {
+      int stop = this.captureEnd(cell, dir, own, opp);
+      if (stop >= 0) {
+        flipped += this.flipToward(cell, dir, stop, own, opp);
+      }
+    }
+    if (flipped > 0) {
+      this.setBit(own, cell);
+      this.discHash ^= this.zobrist.disc(who, cell);
+      if (this.tracking) {
+        this.stability.update(cell);
+      }
+    }
+    return flipped;
+  }
+
+  /**
+   * Returns true if the given player can place a disc in the given cell.
+   *
+   * @param who  the player to check.
+   * @param cell a cell index on this board.
+   * @return true if the cell is empty and a disc there would capture at least one disc.
+   */
+  public boolean isLegal(Player who, int cell) {
+    if (this.occupied(cell)) {
+      return false;
+    }
+    long[] own = this.discs(who);
+    long[] opp = this.discs(this.opponent(who));
+    for (int dir = 0; dir < HexGeometry.DIRECTIONS; dir++) {
+      if (this.captureEnd(cell, dir, own, opp) >= 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the number of discs the given player would flip by placing a disc in the given cell.
+   *
+   * @param who  the player to check.
+   * @param cell the cell index of an empty tile.
+   * @return the number of discs that would be captured, 0 if the move is not legal.
+   */
+  public int countFlips(Player who, int cell) {
+    if (this.occupied(cell)) {
+      return 0;
+    }
+    long[] own = this.discs(who);
+    long[] opp = this.discs(this.opponent(who));
+    int flipped = 0;
+    for (int dir = 0; dir < HexGeometry.DIRECTIONS; dir++) {
+      int stop = this.captureEnd(cell, dir, own, opp);
+      if (stop >= 0) {
+        flipped += this.countToward(cell, dir, stop);
+      }
+    }
+    return flipped;
+  }
+
+  /**
+   * Writes the cells the given player can legally move in to the given buffer in cell order.
+   *
+   * @param who    the player to find the moves of.
+   * @param buffer a buffer with room for at least as many cells as the board has empty tiles.
+   * @return the number of legal moves written to the buffer.
+   */
+  public int legalMoves(Player who, int[] buffer) {
+    int count = 0;
+    long[] mask = this.geometry.boardMask();
+    for (int w = 0; w < mask.length; w++) {
+      long empty = mask[w] & ~(this.black[w] | this.white[w]);
+      while (empty != 0) {
+        int cell = (w << 6) + Long.numberOfTrailingZeros(empty);
+        empty &= empty - 1;
+        if (this.isLegal(who, cell)) {
+          buffer[count++] = cell;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns the number of cells the given player can legally move in, without allocating
+   * anything.
+   *
+   * @param who the player to count the moves of.
+   * @return the number of legal moves.
+   */
+  public int countMoves(Player who) {
+    int count = 0;
+    long[] mask = this.geometry.boardMask();
+    for (int w = 0; w < mask.length; w++) {
+      long empty = mask[w] & ~(this.black[w] | this.white[w]);
+      while (empty != 0) {
+        int cell = (w << 6) + Long.numberOfTrailingZeros(empty);
+        empty &= empty - 1;
+        if (this.isLegal(who, cell)) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public List<NoDiscHexagon> legalMoves(Player who) {
+    int[] cells = new int[this.geometry.cellCount()];
+    int count = this.legalMoves(who, cells);
+    List<NoDiscHexagon> moves = new ArrayList<>(count);
+    for (int k = 0; k < count; k++) {
+      moves.add(this.views().tile(cells[k]));
+    }
+    return moves;
+  }
+
+  // returns true if the given player has at least one legal move
+  private boolean hasMove(Player who) {
+    long[] mask = this.geometry.boardMask();
+    for (int w = 0; w < mask.length; w++) {
+      long empty = mask[w] & ~(this.black[w] | this.white[w]);
+      while (empty != 0) {
+        int cell = (w << 6) + Long.numberOfTrailingZeros(empty);
+        empty &= empty - 1;
+        if (this.isLegal(who, cell)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  // returns the cell of the own disc that closes a capture walking from cell in the given
+  // direction, or -1 if no opposing disc would be captured that way
+  private int captureEnd(int cell, int dir, long[] own, long[] opp) {
+    int next = this.geometry.neighbor(cell, dir);
+    if (next < 0 || !this.testBit(opp, next)) {
+      return -1;
+    }
+    long[] ray = this.geometry.rayMask(cell, dir);
+    int base = this.geometry.rayWord(cell, dir);
+    if (HexGeometry.ascending(dir)) {
+      for (int w = 0; w < ray.length; w++) {
+        long bits = ray[w] & ~opp[base + w];
+        if (bits != 0) {
+          int stop = ((base + w) << 6) + Long.numberOfTrailingZeros(bits);
+          return this.testBit(own, stop) ? stop : -1;
+        }
+      }
+    } else {
+      for (int w = ray.length - 1; w >= 0; w--) {
+        long bits = ray[w] & ~opp[base + w];
+        if (bits != 0) {
+          int stop = ((base + w) << 6) + 63 - Long.numberOfLeadingZeros(bits);
+          return this.testBit(own, stop) ? stop : -1;
+        }
+      }
+    }
+    return -1;
+  }
+
+  // flips the discs on the ray from cell up to stop to the owner of own and returns how many
+  private int flipToward(int cell, int dir, int stop, long[] own, long[] opp) {
+    long[] ray = this.geometry.rayMask(cell, dir);
+    int base = this.geometry.rayWord(cell, dir);
+    int count = 0;
+    for (int w = 0; w < ray.length; w++) {
+      long bits = ray[w] & this.between(base + w, stop, dir);
+      own[base + w] |= bits;
+      opp[base + w] &= ~bits;
+      count += Long.bitCount(bits);
+      for (long rest = bits; rest != 0; rest &= rest - 1) {
+        this.discHash ^= this.zobrist.flip(((base + w) << 6) + Long.numberOfTrailingZeros(rest));
+      }
+    }
+    return count;
+  }
+
+  // counts the discs on the ray from cell up to stop
+  private int countToward(int cell, int dir, int stop) {
+    long[] ray = this.geometry.rayMask(cell, dir);
+    int base = this.geometry.rayWord(cell, dir);
+    int count = 0;
+    for (int w = 0; w < ray.length; w++) {
+      count += Long.bitCount(ray[w] & this.between(base + w, stop, dir));
+    }
+    return count;
+  }
+
+  // the bits of the given word that lie before stop when walking in the given direction
+  private long between(int word, int stop, int dir) {
+    int stopWord = stop >>> 6;
+    if (HexGeometry.ascending(dir)) {
+      if (word < stopWord) {
+        return -1L;
+      }
+      return word == stopWord ? (1L << stop) - 1 : 0L;
+    }
+    if (word > stopWord) {
+      return -1L;
+    }
+    return word == stopWord ? ~((2L << stop) - 1) : 0L;
+  }
+
+  /**
+   * Returns the current score for the given player, which is the sum of the number of tiles
+   * filled with a disc of the color of that player.
+   *
+   * @return the score
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public int getScore(Player who) {
+    if (!this.gameStarted) {
+      throw new IllegalStateException("Game has not started");
+    }
+    return this.count(who);
+  }
+
+  @Override
+  public long positionHash() {
+    return this.positionHash(this.turn);
+  }
+
+  /**
+   * Returns the hash of the discs on the board with the given player to move, which is the hash
+   * positionHash would give if it were that player's turn.
+   *
+   * @param toMove the player to move.
+   * @return the hash of the position with that player to move.
+   */
+  public long positionHash(Player toMove) {
+    return this.discHash ^ this.zobrist.side(toMove);
+  }
+
+  @Override
+  public ScoreSnapshot getScoreSnapshot() {
+    if (!this.gameStarted) {
+      throw new IllegalStateException("Game has not started");
+    }
+    int a = this.count(Player.A);
+    int b = this.count(Player.B);
+    return new ScoreSnapshot(a, b, this.geometry.cellCount() - a - b);
+  }
+
+  /**
+   * Returns the number of discs of the given player on the board, whether or not the game has
+   * been started.
+   *
+   * @param who the player whose discs are counted.
+   * @return the number of discs of that player.
+   */
+  public int count(Player who) {
+    int total = 0;
+    for (long bits : this.discs(who)) {
+      total += Long.bitCount(bits);
+    }
+    return total;
+  }
+
+  /**
+   * Starts keeping track of the discs that can never be flipped again, so that isStable and
+   * countStable answer from what every move since has added instead of looking at the whole
+   * board. Does nothing if they are already kept track of. Copies of the board keep track of
+   * them too.
+   */
+  public void trackStability() {
+    if (!this.tracking) {
+      this.stabilityNow();
+      this.tracking = true;
+    }
+  }
+
+  /**
+   * Returns true if the disc in the given cell can never be flipped again. A disc is found
+   * stable once, along each of the three lines through it, the tile next to it on one side is
+   * off the board, can never be filled or holds a stable disc of its own color, or the line is
+   * filled on both sides up to the edge of the board or a tile that can never be filled. Some
+   * discs that cannot be flipped may not be found. Unless trackStability has been called, the
+   * whole board is looked at.
+   *
+   * @param cell a cell index on this board.
+   * @return true if the cell holds a disc found stable.
+   */
+  public boolean isStable(int cell) {
+    return this.stabilityNow().isStable(cell);
+  }
+
+  /**
+   * Returns the number of discs of the given player that can never be flipped again, found the
+   * same way as by isStable. Unless trackStability has been called, the whole board is looked
+   * at.
+   *
+   * @param who the player whose discs are counted.
+   * @return the number of stable discs of that player.
+   */
+  public int countStable(Player who) {
+    return this.stabilityNow().count(this.discs(who));
+  }
+
+  // the stable discs as kept track of, or else found from scratch
+  private Stability stabilityNow() {
+    if (this.stability == null) {
+      this.stability = new Stability(this.geometry, this.black, this.white);
+    } else if (!this.tracking) {
+      this.stability.recompute();
+    }
+    return this.stability;
+  }
+
+  /**
+   * Signal if the game is over or not.  A game is over if there are no more
+   * possible moves to be made by both players.
+   *
+   * @return true if game is over, false otherwise
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public boolean gameOver() {
+    if (!this.gameStarted) {
+      throw new IllegalStateException("Game has not started");
+    }
+    return !this.hasMove(Player.A) && !this.hasMove(Player.B);
+  }
+
+  @Override
+  public AbstractHexagon getHex(int i, int j) {
+    return this.views().view(this.geometry.index(i, j));
+  }
+
+  /**
+   * Returns the owner of the disc in the given cell.
+   *
+   * @param cell a cell index on this board.
+   * @return the player whose disc is in the cell, or null if the tile has no disc.
+   */
+  public Player ownerAt(int cell) {
+    if (this.testBit(this.black, cell)) {
+      return Player.A;
+    } else if (this.testBit(this.white, cell)) {
+      return Player.B;
+    }
+    return null;
+  }
+
+  /**
+   * Returns grid that the game is being played on. The tiles are read-only views of the board,
+   * so the list always shows the current state of the board.
+   *
+   * @return the hexagonal grid that the game is being played on.
+   */
+  @Override
+  public List<NoDiscHexagon> getGrid() {
+    return this.views().asList();
+  }
+
+  // the color of the disc in the given cell, or null if the cell has no disc
+  private Color colorAt(int cell) {
+    if (this.testBit(this.black, cell)) {
+      return Color.BLACK;
+    } else if (this.testBit(this.white, cell)) {
+      return Color.WHITE;
+    }
+    return null;
+  }
+
+  /**
+   * Adds the observer to the list of observers that need to observe the model.
+   * @param rc the Model Status Observer
+   */
+  @Override
+  public void addObservers(ModelStatusObservers rc) {
+    controllers.add(rc);
+  }
+
+  // the bitset holding the discs of the given player
+  private long[] discs(Player who) {
+    return who == Player.A ? this.black : this.white;
+  }
+
+  // the other player
+  private Player opponent(Player who) {
+    return who == Player.A ? Player.B : Player.A;
+  }
+
+  // returns true if there is a disc of either color in the given cell
+  private boolean occupied(int cell) {
+    return this.testBit(this.black, cell) || this.testBit(this.white, cell);
+  }
+
+  private boolean testBit(long[] bits, int cell) {
+    return (bits[cell >>> 6] & (1L << cell)) != 0;
+  }
+
+  private void setBit(long[] bits, int cell) {
+    bits[cell >>> 6] |= 1L << cell;
+  }
+}
@@ -0,0 +1,251 @@
+package model;
+
+import java.awt.Color;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+
+/**
+ * The read-only tiles a model hands out for a board whose discs are stored by cell index. Every
+ * cell has one NoDiscHexagon and one FilledHexagon per color created up front, and the tile for
+ * a cell is picked from the current owner of the cell, so placing or flipping a disc only
+ * changes the model's own state and never allocates. The neighbors of a tile are looked up
+ * through the geometry of the board, so they always reflect the current state of the board.
+ */
+final class CellViews {
+
+  private final HexGeometry geometry;
+
+  // the color of the disc in a cell, or null if the cell has no disc
+  private final IntFunction<Color> owners;
+
+  // the tile of every cell when it has no disc, a black disc or a white disc
+  private final NoDiscHexagon[] open;
+  private final FilledHexagon[] black;
+  private final FilledHexagon[] white;
+
+  // the whole board as a list in cell order
+  private final List<NoDiscHexagon> grid;
+
+  /**
+   * Creates the tiles of a board.
+   *
+   * @param geometry the layout of the board.
+   * @param owners   returns the color of the disc in a cell, or null if the cell has no disc.
+   */
+  CellViews(HexGeometry geometry, IntFunction<Color> owners) {
+    this.geometry = geometry;
+    this.owners = owners;
+    int cells = geometry.cellCount();
+    this.open = new NoDiscHexagon[cells];
+    this.black = new FilledHexagon[cells];
+    this.white = new FilledHexagon[cells];
+    for (int c = 0; c < cells; c++) {
+      this.open[c] = new OpenTile(this, c);
+      this.black[c] = new DiscTile(this, c, Color.BLACK);
+      this.white[c] = new DiscTile(this, c, Color.WHITE);
+    }
+    this.grid = new Grid();
+  }
+
+  /**
+   * Returns the tile of the given cell for the current state of the board.
+   *
+   * @param cell a cell index on the board, or -1 for a position off the board.
+   * @return the tile of the cell, or the shared EmptyHexagon for a position off the board.
+   */
+  AbstractHexagon view(int cell) {
+    if (cell < 0) {
+      return EmptyHexagon.INSTANCE;
+    }
+    return this.tile(cell);
+  }
+
+  /**
+   * Returns the tile of the given cell for the current state of the board.
+   *
+   * @param cell a cell index on the board.
+   * @return the tile of the cell.
+   */
+  NoDiscHexagon tile(int cell) {
+    Color col = this.owners.apply(cell);
+    if (col == null) {
+      return this.open[cell];
+    }
+    return Color.BLACK.equals(col) ? this.black[cell] : this.white[cell];
+  }
+
+  /**
+   * Returns the board as a read-only list of tiles in cell order. The list always shows the
+   * current state of the board.
+   *
+   * @return the grid of the board.
+   */
+  List<NoDiscHexagon> asList() {
+    return this.grid;
+  }
+
+  // the tile next to the given cell in the given direction
+  private AbstractHexagon next(int cell, int dir) {
+    return this.view(this.geometry.neighbor(cell, dir));
+  }
+
+  // a live list of the tiles of the board
+  private final class Grid extends AbstractList<NoDiscHexagon> implements RandomAccess {
+    @Override
+    public NoDiscHexagon get(int index) {
+      return CellViews.this.tile(index);
+    }
+
+    @Override
+    public int size() {
+      return CellViews.this.geometry.cellCount();
+    }
+  }
+
+  // the tile of a cell with no disc. Its neighbors come from the board, so the setters that
+  // are used to link loose tiles have nothing to do
+  private static final class OpenTile extends NoDiscHexagon {
+    private final CellViews board;
+    private final int cell;
+
+    OpenTile(CellViews board, int cell) {
+      super(board.geometry.diagonal(cell), board.geometry.row(cell));
+      this.board = board;
+      this.cell = cell;
+    }
+
+    @Override
+    public AbstractHexagon getRight() {
+      return this.board.next(this.cell, HexGeometry.RIGHT);
+    }
+
+    @Override
+    public AbstractHexagon getBottomRight() {
+      return this.board.next(this.cell, HexGeometry.BOTTOM_RIGHT);
+    }
+
+    @Override
+    public AbstractHexagon getLeft() {
+      return this.board.next(this.cell, HexGeometry.LEFT);
+    }
+
+    @Override
+    public AbstractHexagon getTopRight() {
+      return this.board.next(this.cell, HexGeometry.TOP_RIGHT);
+    }
+
+    @Override
+    public AbstractHexagon getTopLeft() {
+      return this.board.next(this.cell, HexGeometry.TOP_LEFT);
+    }
+
+    @Override
+    public AbstractHexagon getBottomLeft() {
+      return this.board.next(this.cell, HexGeometry.BOTTOM_LEFT);
+    }
+
+    @Override
+    public void setRight(AbstractHexagon hex) {
+      // linked through the board
+    }
+
+    @Override
+    public void setBottomRight(AbstractHexagon hex) {
+      // linked through the board
+    }
+
+    @Override
+    public void setLeft(AbstractHexagon hex) {
+      // linked through the board
+    }
+
+    @Override
+    public void setTopRight(AbstractHexagon hex) {
+      // linked through the board
+    }
+
+    @Override
+    public void setTopLeft(AbstractHexagon hex) {
+      // linked through the board
+    }
+
+    @Override
+    public void setBottomLeft(AbstractHexagon hex) {
+      // linked through the board
+    }
+  }
+
+  // the tile of a cell holding a disc of one color
+  private static final class DiscTile extends FilledHexagon {
+    private final CellViews board;
+    private final int cell;
+
+    DiscTile(CellViews board, int cell, Color col) {
+      super(board.geometry.diagonal(cell), board.geometry.row(cell), col);
+      this.board = board;
+      this.cell = cell;
+    }
+
+    @Override
+    public AbstractHexagon getRight() {
+      return this.board.next(this.cell, HexGeometry.RIGHT);
+    }
+
+    @Override
+    public AbstractHexagon getBottomRight() {
+      return this.board.next(this.cell, HexGeometry.BOTTOM_RIGHT);
+    }
+
+    @Override
+    public AbstractHexagon getLeft() {
+      return this.board.next(this.cell, HexGeometry.LEFT);
+    }
+
+    @Override
+    public AbstractHexagon getTopRight() {
+      return this.board.next(this.cell, HexGeometry.TOP_RIGHT);
+    }
+
+    @Override
+    public AbstractHexagon getTopLeft() {
+      return this.board.next(this.cell, HexGeometry.TOP_LEFT);
+    }
+
+    @Override
+    public AbstractHexagon getBottomLeft() {
+      return this.board.next(this.cell, HexGeometry.BOTTOM_LEFT);
+    }
+
+    @Override
+    public void setRight(AbstractHexagon hex) {
+      // linked through the board
+    }
+
+    @Override
+    public void setBottomRight(AbstractHexagon hex) {
+      // linked through the board
+    }
+
+    @Override
+    public void setLeft(AbstractHexagon hex) {
+      // linked through the board
+    }
+
+    @Override
+    public void setTopRight(AbstractHexagon hex) {
+      // linked through the board
+    }
+
+    @Override
+    public void setTopLeft(AbstractHexagon hex) {
+      // linked through the board
+    }
+
+    @Override
+    public void setBottomLeft(AbstractHexagon hex) {
+      // linked through the board
+    }
+  }
+}
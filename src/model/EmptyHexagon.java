@@ -6,6 +6,12 @@ package model;
  */
 public class EmptyHexagon extends AbstractHexagon {
 
+  /**
+   * The shared tile used for every position off the edge of the board. An EmptyHexagon has no
+   * state, so the models hand out this instance instead of allocating a new one on every miss.
+   */
+  public static final EmptyHexagon INSTANCE = new EmptyHexagon();
+
   // Sets the right neighbor of this tile to the given tile.
 
   /**
@@ -0,0 +1,296 @@
+package model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Precomputed layout of a hexagonal board of a given size. Every tile on the board gets a dense
+ * cell index in the same order that ReversiModel.initialGrid lists the tiles (diagonal by
+ * diagonal, top to bottom), so a cell index can be used both as a position in the grid and as a
+ * bit position in a bitset of the board. The tables are immutable and shared by every board of
+ * the same size.
+ */
+public final class HexGeometry {
+
+  // the six directions a line of discs can run in. Opposite directions differ only in the
+  // lowest bit and the axis of a direction is dir / 2
+  public static final int RIGHT = 0;
+  public static final int LEFT = 1;
+  public static final int TOP_RIGHT = 2;
+  public static final int BOTTOM_LEFT = 3;
+  public static final int TOP_LEFT = 4;
+  public static final int BOTTOM_RIGHT = 5;
+
+  // number of directions around a tile
+  public static final int DIRECTIONS = 6;
+
+  // change in the diagonal coordinate when stepping once in each direction
+  private static final int[] DIAGONAL_STEP = {1, -1, 0, 0, -1, 1};
+
+  // change in the row coordinate when stepping once in each direction
+  private static final int[] ROW_STEP = {0, 0, -1, 1, -1, 1};
+
+  private static final ConcurrentMap<Integer, HexGeometry> CACHE = new ConcurrentHashMap<>();
+
+  // the number of tiles along each side of the board
+  private final int size;
+
+  // the number of tiles on the board
+  private final int cells;
+
+  // the number of 64 bit words needed to hold one bit per tile
+  private final int words;
+
+  // the width of the square coordinate space (2 * size - 1)
+  private final int span;
+
+  // maps diagonal * span + row to a cell index, or -1 if the coordinates are off the board
+  private final int[] cellAt;
+
+  // the diagonal and row coordinate of every cell
+  private final int[] diagonals;
+  private final int[] rows;
+
+  // neighbors[cell * DIRECTIONS + dir] is the adjacent cell in that direction or -1
+  private final int[] neighbors;
+
+  // rays[cell * DIRECTIONS + dir] lists the cells met walking away from cell in that direction
+  private final int[][] rays;
+
+  // the same rays as bit masks, trimmed to the words they touch starting at rayWord
+  private final long[][] rayMasks;
+  private final int[] rayWord;
+
+  // the mask of bits that are real tiles in each word
+  private final long[] boardMask;
+
+  // whether each cell is one of the six corners of the board
+  private final boolean[] corners;
+
+  private HexGeometry(int size) {
+    this.size = size;
+    this.span = 2 * size - 1;
+    this.cellAt = new int[this.span * this.span];
+    this.cells = 3 * size * size - 3 * size + 1;
+    this.words = (this.cells + 63) >>> 6;
+    this.diagonals = new int[this.cells];
+    this.rows = new int[this.cells];
+
+    int cell = 0;
+    for (int d = 0; d < this.span; d++) {
+      for (int r = 0; r < this.span; r++) {
+        if (Math.abs(d - r) <= size - 1) {
+          this.cellAt[d * this.span + r] = cell;
+          this.diagonals[cell] = d;
+          this.rows[cell] = r;
+          cell++;
+        } else {
+          this.cellAt[d * this.span + r] = -1;
+        }
+      }
+    }
+
+    this.neighbors = new int[this.cells * DIRECTIONS];
+    this.rays = new int[this.cells * DIRECTIONS][];
+    this.rayMasks = new long[this.cells * DIRECTIONS][];
+    this.rayWord = new int[this.cells * DIRECTIONS];
+    int[] walk = new int[this.span];
+    for (int c = 0; c < this.cells; c++) {
+      for (int dir = 0; dir < DIRECTIONS; dir++) {
+        int length = 0;
+        int d = this.diagonals[c] + DIAGONAL_STEP[dir];
+        int r = this.rows[c] + ROW_STEP[dir];
+        while (this.index(d, r) >= 0) {
+          walk[length++] = this.index(d, r);
+          d += DIAGONAL_STEP[dir];
+          r += ROW_STEP[dir];
+        }
+        int k = c * DIRECTIONS + dir;
+        this.neighbors[k] = length == 0 ? -1 : walk[0];
+        this.rays[k] = new int[length];
+        System.arraycopy(walk, 0, this.rays[k], 0, length);
+        this.buildRayMask(k, this.rays[k]);
+      }
+    }
+
+    this.boardMask = new long[this.words];
+    this.corners = new boolean[this.cells];
+    for (int c = 0; c < this.cells; c++) {
+      this.boardMask[c >>> 6] |= 1L << c;
+      int around = 0;
+      for (int dir = 0; dir < DIRECTIONS; dir++) {
+        if (this.neighbor(c, dir) >= 0) {
+          around++;
+        }
+      }
+      // only the corners of a hexagon have three neighbors
+      this.corners[c] = around == 3;
+    }
+  }
+
+  // stores the bit mask of the given ray, keeping only the words between its first and last cell
+  private void buildRayMask(int k, int[] ray) {
+    if (ray.length == 0) {
+      this.rayMasks[k] = new long[0];
+      return;
+    }
+    int low = Math.min(ray[0], ray[ray.length - 1]) >>> 6;
+    int high = Math.max(ray[0], ray[ray.length - 1]) >>> 6;
+    long[] mask = new long[high - low + 1];
+    for (int c : ray) {
+      mask[(c >>> 6) - low] |= 1L << c;
+    }
+    this.rayMasks[k] = mask;
+    this.rayWord[k] = low;
+  }
+
+  /**
+   * Returns the shared geometry for boards of the given size.
+   *
+   * @param size the number of tiles along each side of the board.
+   * @return the geometry of a board of that size.
+   * @throws IllegalArgumentException if the size is less than or equal to 1.
+   */
+  public static HexGeometry of(int size) {
+    if (size <= 1) {
+      throw new IllegalArgumentException("Size must be greater than 1");
+    }
+    return CACHE.computeIfAbsent(size, HexGeometry::new);
+  }
+
+  /**
+   * Returns the number of tiles along each side of the board.
+   * @return the board size.
+   */
+  public int getSize() {
+    return this.size;
+  }
+
+  /**
+   * Returns the number of tiles on the board.
+   * @return the number of cells.
+   */
+  public int cellCount() {
+    return this.cells;
+  }
+
+  /**
+   * Returns the number of 64 bit words needed to store one bit for every tile.
+   * @return the length of a bitset of this board.
+   */
+  public int words() {
+    return this.words;
+  }
+
+  /**
+   * Returns the cell index of the tile with the given coordinates.
+   *
+   * @param diagonal the 0-based index (from the left) of the diagonal coordinate of the tile.
+   * @param row      the 0-based index (from the top) of the row coordinate of the tile.
+   * @return the cell index of the tile, or -1 if the coordinates are not on the board.
+   */
+  public int index(int diagonal, int row) {
+    if (diagonal < 0 || row < 0 || diagonal >= this.span || row >= this.span) {
+      return -1;
+    }
+    return this.cellAt[diagonal * this.span + row];
+  }
+
+  /**
+   * Returns the diagonal coordinate of the given cell.
+   * @param cell a cell index on this board.
+   * @return the 0-based diagonal coordinate of the cell.
+   */
+  public int diagonal(int cell) {
+    return this.diagonals[cell];
+  }
+
+  /**
+   * Returns the row coordinate of the given cell.
+   * @param cell a cell index on this board.
+   * @return the 0-based row coordinate of the cell.
+   */
+  public int row(int cell) {
+    return this.rows[cell];
+  }
+
+  /**
+   * Returns the cell adjacent to the given cell in the given direction.
+   *
+   * @param cell a cell index on this board.
+   * @param dir  one of the six direction constants.
+   * @return the neighboring cell, or -1 if the neighbor would be off the board.
+   */
+  public int neighbor(int cell, int dir) {
+    return this.neighbors[cell * DIRECTIONS + dir];
+  }
+
+  /**
+   * Returns the cells met walking away from the given cell in the given direction, nearest
+   * first. The returned array is shared and must not be modified.
+   *
+   * @param cell a cell index on this board.
+   * @param dir  one of the six direction constants.
+   * @return the cells along the ray, not including the starting cell.
+   */
+  public int[] ray(int cell, int dir) {
+    return this.rays[cell * DIRECTIONS + dir];
+  }
+
+  /**
+   * Returns true if the given cell is one of the six corners of the board.
+   * @param cell a cell index on this board.
+   * @return true if the cell is a corner.
+   */
+  public boolean corner(int cell) {
+    return this.corners[cell];
+  }
+
+  /**
+   * Returns the direction that steps by the given change in coordinates.
+   * @param dDiagonal the change in the diagonal coordinate.
+   * @param dRow      the change in the row coordinate.
+   * @return the direction constant, or -1 if the change is not a single step to a neighbor.
+   */
+  public static int direction(int dDiagonal, int dRow) {
+    for (int dir = 0; dir < DIRECTIONS; dir++) {
+      if (DIAGONAL_STEP[dir] == dDiagonal && ROW_STEP[dir] == dRow) {
+        return dir;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the direction opposite to the given direction.
+   * @param dir one of the six direction constants.
+   * @return the opposite direction.
+   */
+  public static int opposite(int dir) {
+    return dir ^ 1;
+  }
+
+  /**
+   * Returns true if walking in the given direction visits cells with increasing indexes.
+   * @param dir one of the six direction constants.
+   * @return true for the right, bottom left and bottom right directions.
+   */
+  public static boolean ascending(int dir) {
+    return dir == RIGHT || dir == BOTTOM_LEFT || dir == BOTTOM_RIGHT;
+  }
+
+  // the bit mask of the ray, trimmed to the words starting at rayWord
+  long[] rayMask(int cell, int dir) {
+    return this.rayMasks[cell * DIRECTIONS + dir];
+  }
+
+  // the first word of the bitset covered by rayMask
+  int rayWord(int cell, int dir) {
+    return this.rayWord[cell * DIRECTIONS + dir];
+  }
+
+  // the bits of every word that belong to a tile
+  long[] boardMask() {
+    return this.boardMask;
+  }
+}
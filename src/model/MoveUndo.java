@@ -0,0 +1,98 @@
+package model;
+
+/**
+ * A record of a move made with Reversi.makeSearchMove, holding everything needed to take the
+ * move back with Reversi.unmakeMove: the player who moved, the cell the disc was placed in, the
+ * cells whose discs were flipped and whose turn it was before the move. Cells are the indexes
+ * given by the HexGeometry of the board.
+ */
+public final class MoveUndo {
+
+  // the player who made the move
+  private final Player player;
+
+  // the cell the disc was placed in
+  private final int cell;
+
+  // the cells of the discs flipped by the move
+  private final int[] flipped;
+
+  // the player whose turn it was before the move
+  private final Player previousTurn;
+
+  // the cells of the discs the move made stable, or null if the board was not keeping track
+  private final int[] stabilized;
+
+  /**
+   * Constructs a MoveUndo.
+   *
+   * @param player       the player who made the move.
+   * @param cell         the cell the disc was placed in.
+   * @param flipped      the cells of the discs flipped by the move, which are not copied.
+   * @param previousTurn the player whose turn it was before the move.
+   */
+  MoveUndo(Player player, int cell, int[] flipped, Player previousTurn) {
+    this(player, cell, flipped, previousTurn, null);
+  }
+
+  /**
+   * Constructs a MoveUndo for a board that keeps track of its stable discs.
+   *
+   * @param player       the player who made the move.
+   * @param cell         the cell the disc was placed in.
+   * @param flipped      the cells of the discs flipped by the move, which are not copied.
+   * @param previousTurn the player whose turn it was before the move.
+   * @param stabilized   the cells of the discs the move made stable, which are not copied, or
+   *                     null if the board was not keeping track of them.
+   */
+  MoveUndo(Player player, int cell, int[] flipped, Player previousTurn, int[] stabilized) {
+    this.player = player;
+    this.cell = cell;
+    this.flipped = flipped;
+    this.previousTurn = previousTurn;
+    this.stabilized = stabilized;
+  }
+
+  /**
+   * Returns the player who made the move.
+   * @return the player who moved.
+   */
+  public Player getPlayer() {
+    return this.player;
+  }
+
+  /**
+   * Returns the cell the disc was placed in.
+   * @return the cell index of the move.
+   */
+  public int getCell() {
+    return this.cell;
+  }
+
+  /**
+   * Returns the number of discs the move flipped.
+   * @return the number of flipped discs.
+   */
+  public int getFlipCount() {
+    return this.flipped.length;
+  }
+
+  /**
+   * Returns the cell of one of the discs the move flipped.
+   * @param k the position of the disc among the flipped discs, from 0 to getFlipCount() - 1.
+   * @return the cell index of the flipped disc.
+   */
+  public int getFlipped(int k) {
+    return this.flipped[k];
+  }
+
+  // the player whose turn it was before the move
+  Player getPreviousTurn() {
+    return this.previousTurn;
+  }
+
+  // the cells of the discs the move made stable, or null if they were not kept track of
+  int[] getStabilized() {
+    return this.stabilized;
+  }
+}
@@ -47,12 +47,12 @@ public class NoDiscHexagon extends AbstractHexagon {
     }
     this.diagonal = diagonal;
     this.row = row;
-    this.left = new EmptyHexagon();
-    this.topLeft = new EmptyHexagon();
-    this.right = new EmptyHexagon();
-    this.topRight = new EmptyHexagon();
-    this.bottomLeft = new EmptyHexagon();
-    this.bottomRight = new EmptyHexagon();
+    this.left = EmptyHexagon.INSTANCE;
+    this.topLeft = EmptyHexagon.INSTANCE;
+    this.right = EmptyHexagon.INSTANCE;
+    this.topRight = EmptyHexagon.INSTANCE;
+    this.bottomLeft = EmptyHexagon.INSTANCE;
+    this.bottomRight = EmptyHexagon.INSTANCE;
   }
 
   /**
@@ -131,6 +131,31 @@ public class NoDiscHexagon extends AbstractHexagon {
     return this.bottomLeft;
   }
 
+  /**
+   * Accesses the neighbor of this tile in the given direction.
+   * @param dir one of the direction constants of HexGeometry.
+   * @return the neighbor in that direction.
+   * @throws IllegalArgumentException if the direction is not one of the six directions.
+   */
+  public AbstractHexagon getNeighbor(int dir) {
+    switch (dir) {
+      case HexGeometry.RIGHT:
+        return this.getRight();
+      case HexGeometry.LEFT:
+        return this.getLeft();
+      case HexGeometry.TOP_RIGHT:
+        return this.getTopRight();
+      case HexGeometry.BOTTOM_LEFT:
+        return this.getBottomLeft();
+      case HexGeometry.TOP_LEFT:
+        return this.getTopLeft();
+      case HexGeometry.BOTTOM_RIGHT:
+        return this.getBottomRight();
+      default:
+        throw new IllegalArgumentException("Invalid direction");
+    }
+  }
+
   /**
    * Sets the right neighbor of this tile to the given tile.
    * @param hex the given AbstractHexagon tile.
@@ -203,12 +228,12 @@ public class NoDiscHexagon extends AbstractHexagon {
    *         EmptyHexagon,false if even one of the neighbor tiles have a disc inside it
    */
   protected boolean allNeighborsEmpty() {
-    return (!(this.topLeft instanceof FilledHexagon)
-            && !(this.left instanceof FilledHexagon)
-            && !(this.bottomLeft instanceof FilledHexagon)
-            && !(this.topRight instanceof FilledHexagon)
-            && !(this.right instanceof FilledHexagon)
-            && !(this.bottomRight instanceof FilledHexagon));
+    return (!(this.getTopLeft() instanceof FilledHexagon)
+            && !(this.getLeft() instanceof FilledHexagon)
+            && !(this.getBottomLeft() instanceof FilledHexagon)
+            && !(this.getTopRight() instanceof FilledHexagon)
+            && !(this.getRight() instanceof FilledHexagon)
+            && !(this.getBottomRight() instanceof FilledHexagon));
   }
 
 
@@ -221,43 +246,75 @@ public class NoDiscHexagon extends AbstractHexagon {
   public List<FilledHexagon> getFilledHexagons(Color col) {
     List<FilledHexagon> filledHexagons = new ArrayList<>();
 
-    if (this.topLeft instanceof FilledHexagon) {
-      FilledHexagon topLeft = (FilledHexagon) this.topLeft;
-      if (topLeft.getColor() != col) {
-        filledHexagons.add((FilledHexagon) this.topLeft);
-      }
-    }
-    if (this.topRight instanceof FilledHexagon) {
-      FilledHexagon topRight = (FilledHexagon) this.topRight;
-      if (topRight.getColor() != col) {
-        filledHexagons.add((FilledHexagon) this.topRight);
+    this.addOpposing(this.getTopLeft(), col, filledHexagons);
+    this.addOpposing(this.getTopRight(), col, filledHexagons);
+    this.addOpposing(this.getRight(), col, filledHexagons);
+    this.addOpposing(this.getLeft(), col, filledHexagons);
+    this.addOpposing(this.getBottomLeft(), col, filledHexagons);
+    this.addOpposing(this.getBottomRight(), col, filledHexagons);
+    return filledHexagons;
+  }
 
-      }
-    }
-    if (right instanceof FilledHexagon) {
-      FilledHexagon right = (FilledHexagon) this.right;
-      if (right.getColor() != col) {
-        filledHexagons.add((FilledHexagon) this.right);
-      }
+  /**
+   * Counts the discs a disc of the given color placed in this tile would flip, without
+   * allocating anything.
+   * @param col the color of the player who would move in this tile.
+   * @return the number of discs that would be flipped, 0 if the move is not legal.
+   */
+  public int countFlips(Color col) {
+    return this.findFlips(col, null);
+  }
+
+  /**
+   * Finds the discs a disc of the given color placed in this tile would flip and writes them to
+   * the given buffer, direction by direction, without allocating anything. The buffer can be
+   * reused between calls.
+   * @param col    the color of the player who would move in this tile.
+   * @param buffer the buffer to write the discs to, with room for every disc on the board, or
+   *               null to only count them.
+   * @return the number of discs written to the buffer, 0 if the move is not legal.
+   */
+  public int findFlips(Color col, FilledHexagon[] buffer) {
+    int count = 0;
+    for (int dir = 0; dir < HexGeometry.DIRECTIONS; dir++) {
+      count += line(this.getNeighbor(dir), dir, col, buffer, count);
     }
-    if (this.left instanceof FilledHexagon) {
-      FilledHexagon left = (FilledHexagon) this.left;
-      if (left.getColor() != col) {
-        filledHexagons.add((FilledHexagon) this.left);
+    return count;
+  }
+
+  /**
+   * Walks from the given tile in the given direction over discs of a color other than the given
+   * one. If the walk ends in a disc of the given color those discs would be flipped, and they
+   * are written to the buffer starting at offset when the buffer is not null.
+   * @param first  the first tile of the line.
+   * @param dir    one of the direction constants of HexGeometry.
+   * @param col    the color of the player who would flip the line.
+   * @param buffer the buffer to write the discs to, or null to only count them.
+   * @param offset the position in the buffer to write the first disc to.
+   * @return the number of discs in the line that would be flipped, or 0 if none would be.
+   */
+  static int line(AbstractHexagon first, int dir, Color col, FilledHexagon[] buffer,
+                  int offset) {
+    int count = 0;
+    AbstractHexagon current = first;
+    while (current instanceof FilledHexagon) {
+      FilledHexagon disc = (FilledHexagon) current;
+      if (disc.getColor().equals(col)) {
+        return count;
       }
-    }
-    if (this.bottomLeft instanceof FilledHexagon) {
-      FilledHexagon bottomLeft = (FilledHexagon) this.bottomLeft;
-      if (bottomLeft.getColor() != col) {
-        filledHexagons.add((FilledHexagon) this.bottomLeft);
+      if (buffer != null) {
+        buffer[offset + count] = disc;
       }
+      count++;
+      current = disc.getNeighbor(dir);
     }
-    if (this.bottomRight instanceof FilledHexagon) {
-      FilledHexagon bottomRight = (FilledHexagon) this.bottomRight;
-      if (bottomRight.getColor() != col) {
-        filledHexagons.add((FilledHexagon) this.bottomRight);
-      }
+    return 0;
+  }
+
+  // adds the given neighbor to the list if it holds a disc of a color other than the given one
+  private void addOpposing(AbstractHexagon neighbor, Color col, List<FilledHexagon> list) {
+    if (neighbor instanceof FilledHexagon && ((FilledHexagon) neighbor).getColor() != col) {
+      list.add((FilledHexagon) neighbor);
     }
-    return filledHexagons;
   }
 }
\ No newline at end of file
@@ -29,6 +29,30 @@ public interface ReadOnlyReversi {
    */
   int getScore(Player who);
 
+  /**
+   * Returns the scores of both players and the number of tiles with no disc in them in one call.
+   *
+   * @return the current scores of the game
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  ScoreSnapshot getScoreSnapshot();
+
+  /**
+   * Returns a 64 bit Zobrist hash of the discs on the board and the player whose turn it is.
+   * Equal positions of boards of the same size have equal hashes in every model.
+   *
+   * @return the hash of the current position
+   */
+  long positionHash();
+
+  /**
+   * Returns the tiles the given player can currently place a disc in, which are the tiles with
+   * no disc where a disc of that player would capture at least one disc of the other player.
+   *
+   * @param who the player to find the moves of.
+   * @return the tiles the player can legally move in, empty if the player has to pass.
+   */
+  List<NoDiscHexagon> legalMoves(Player who);
 
   /**
    * Returns the tile with the given coordinates.
@@ -23,6 +23,32 @@ public interface Reversi extends ReadOnlyReversi {
    */
   void makeMove(Player who, AbstractHexagon where);
 
+  /**
+   * Makes a move for the given player in the given tile the same way makeMove does, but without
+   * checking whose turn it is or notifying the observers, and returns a record of the move that
+   * unmakeMove uses to take it back. The turn passes to the other player. This lets a search
+   * play out and take back moves on a single model without copying it.
+   *
+   * @param who   the Player who makes the move
+   * @param where the tile to place the disc in
+   * @return the record needed to take the move back
+   * @throws IllegalArgumentException if the player or tile is null, the tile is not on the board
+   *                                  or the move does not capture any discs
+   * @throws IllegalStateException    if the tile already has a disc in it.
+   */
+  MoveUndo makeSearchMove(Player who, AbstractHexagon where);
+
+  /**
+   * Takes back a move made with makeSearchMove, restoring the board, the scores and the turn
+   * exactly as they were before it. Moves must be taken back in the reverse order they were
+   * made. The observers are not notified.
+   *
+   * @param undo the record returned when the move was made
+   * @throws IllegalArgumentException if the record is null
+   * @throws IllegalStateException    if the board does not hold the move as the record describes
+   */
+  void unmakeMove(MoveUndo undo);
+
   /**
    * Changes the player's turn to the next player.
    * @param player the Player whose turn it currently is
@@ -2,6 +2,7 @@ package model;
 
 import java.awt.Color;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import controller.ModelStatusObservers;
@@ -20,8 +21,41 @@ public class ReversiModel implements Reversi {
   // current state of the game
   private boolean gameStarted;
 
-  // list of tiles in the board of the game
-  private List<NoDiscHexagon> grid;
+  // list of tiles in the board of the game. The tiles are read-only views of discs, so the
+  // list always shows the current state of the board
+  private final List<NoDiscHexagon> grid;
+
+  // the precomputed layout of the board, which maps tile coordinates to cell indexes
+  private final HexGeometry geometry;
+
+  // the color of the disc in each cell, or null if the cell has no disc. A move only writes to
+  // this array
+  private final Color[] discs;
+
+  // the tiles handed out for each cell
+  private final CellViews views;
+
+  // the cells with no disc that touch at least one disc, which are the only cells a move can be
+  // made in. The first frontierSize entries are the cells and frontierSlot gives the position of
+  // a cell in the list, or -1 if it is not in the frontier
+  private final int[] frontier;
+  private final int[] frontierSlot;
+  private int frontierSize;
+
+  // legal[p][cell] is true if the player with ordinal p can move in the cell, and legalCount[p]
+  // is the number of such cells. Both are updated around the cells each move changes
+  private final boolean[][] legal;
+  private final int[] legalCount;
+
+  // the cells changed by the last move, reused by every move
+  private final int[] changed;
+
+  // the number of discs of each player, indexed by the ordinal of the player
+  private final int[] scores;
+
+  // the keys of the position hash and the hash of the discs on the board, without the side key
+  private final Zobrist zobrist;
+  private long discHash;
 
   // represents the player who is not next in turn.
   private Player turn;
@@ -47,7 +81,18 @@ public class ReversiModel implements Reversi {
       throw new IllegalArgumentException("Size must be greater than 1");
     }
     this.size = size;
-    this.grid = this.linkedGrid(this.initialGrid(this.size));
+    this.geometry = HexGeometry.of(size);
+    this.discs = new Color[this.geometry.cellCount()];
+    this.views = new CellViews(this.geometry, cell -> this.discs[cell]);
+    this.grid = this.views.asList();
+    this.frontier = new int[this.geometry.cellCount()];
+    this.frontierSlot = new int[this.geometry.cellCount()];
+    this.legal = new boolean[Player.values().length][this.geometry.cellCount()];
+    this.legalCount = new int[Player.values().length];
+    this.changed = new int[this.geometry.cellCount()];
+    this.scores = new int[Player.values().length];
+    this.zobrist = Zobrist.of(size);
+    this.load(this.initialGrid(this.size));
 
   }
 
@@ -55,26 +100,177 @@ public class ReversiModel implements Reversi {
    * Default Constructor for ReversiModel.
    */
   public ReversiModel() {
-    this.gameStarted = false;
-    this.turn = Player.A;
     // default board size
-    this.size = 6;
-    this.grid = this.linkedGrid(this.initialGrid(this.size));
-
-
+    this(6);
   }
 
   /**
-   * Constructor for ReversiModel used to create deep clones of the model.
+   * Constructor for ReversiModel used to create deep clones of the model. The discs of the given
+   * grid are copied, so the new model does not share any state with the grid it was made from.
    */
   public ReversiModel(boolean gameStarted, Player player, int size, List<NoDiscHexagon> grid) {
     this.gameStarted = gameStarted;
     this.turn = player;
     this.size = size;
-    this.grid = grid;
+    this.geometry = HexGeometry.of(size);
+    this.discs = new Color[this.geometry.cellCount()];
+    this.views = new CellViews(this.geometry, cell -> this.discs[cell]);
+    this.grid = this.views.asList();
+    this.frontier = new int[this.geometry.cellCount()];
+    this.frontierSlot = new int[this.geometry.cellCount()];
+    this.legal = new boolean[Player.values().length][this.geometry.cellCount()];
+    this.legalCount = new int[Player.values().length];
+    this.changed = new int[this.geometry.cellCount()];
+    this.scores = new int[Player.values().length];
+    this.zobrist = Zobrist.of(size);
+    this.load(grid);
 
   }
 
+  // copies the discs of the given tiles onto this board and finds the moves of both players
+  private void load(List<NoDiscHexagon> tiles) {
+    for (NoDiscHexagon hex : tiles) {
+      int cell = this.geometry.index(hex.getDiagonal(), hex.getRow());
+      if (cell >= 0 && hex instanceof FilledHexagon) {
+        this.discs[cell] = ((FilledHexagon) hex).getColor();
+      }
+    }
+    for (int c = 0; c < this.discs.length; c++) {
+      if (this.discs[c] != null) {
+        Player owner = this.ownerOf(this.discs[c]);
+        this.scores[owner.ordinal()]++;
+        this.discHash ^= this.zobrist.disc(owner, c);
+      }
+    }
+    Arrays.fill(this.frontierSlot, -1);
+    for (int c = 0; c < this.discs.length; c++) {
+      if (this.discs[c] == null && this.touchesDisc(c)) {
+        this.addFrontier(c);
+        this.refreshMoves(c);
+      }
+    }
+  }
+
+  // returns true if any neighbor of the given cell has a disc in it
+  private boolean touchesDisc(int cell) {
+    for (int dir = 0; dir < HexGeometry.DIRECTIONS; dir++) {
+      int n = this.geometry.neighbor(cell, dir);
+      if (n >= 0 && this.discs[n] != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // adds the given empty cell to the frontier if it is not already in it
+  private void addFrontier(int cell) {
+    if (this.frontierSlot[cell] < 0) {
+      this.frontierSlot[cell] = this.frontierSize;
+      this.frontier[this.frontierSize++] = cell;
+    }
+  }
+
+  // removes the given cell from the frontier by moving the last cell of the list into its place
+  private void removeFrontier(int cell) {
+    int slot = this.frontierSlot[cell];
+    if (slot >= 0) {
+      int last = this.frontier[--this.frontierSize];
+      this.frontier[slot] = last;
+      this.frontierSlot[last] = slot;
+      this.frontierSlot[cell] = -1;
+    }
+  }
+
+  // recomputes whether each player can move in the given cell
+  private void refreshMoves(int cell) {
+    for (Player p : Player.values()) {
+      boolean now = this.discs[cell] == null && this.captures(cell, p.getColor());
+      if (now != this.legal[p.ordinal()][cell]) {
+        this.legal[p.ordinal()][cell] = now;
+        this.legalCount[p.ordinal()] += now ? 1 : -1;
+      }
+    }
+  }
+
+  // returns true if a disc of the given color in the given cell would capture at least one disc
+  private boolean captures(int cell, Color col) {
+    for (int dir = 0; dir < HexGeometry.DIRECTIONS; dir++) {
+      int[] ray = this.geometry.ray(cell, dir);
+      if (ray.length < 2 || this.discs[ray[0]] == null || this.discs[ray[0]].equals(col)) {
+        continue;
+      }
+      for (int k = 1; k < ray.length && this.discs[ray[k]] != null; k++) {
+        if (this.discs[ray[k]].equals(col)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  // the player whose discs have the given color
+  private Player ownerOf(Color col) {
+    return col.equals(Player.A.getColor()) ? Player.A : Player.B;
+  }
+
+  // places a disc of the given player in the given cell and flips the discs it captures, writing
+  // the placed and flipped cells to changed and updating the scores. Returns the number of cells
+  // written
+  private int place(int cell, Player who) {
+    Color col = who.getColor();
+    int count = 0;
+    this.discs[cell] = col;
+    this.changed[count++] = cell;
+    this.discHash ^= this.zobrist.disc(who, cell);
+    for (int dir = 0; dir < HexGeometry.DIRECTIONS; dir++) {
+      int[] ray = this.geometry.ray(cell, dir);
+      int k = 0;
+      while (k < ray.length && this.discs[ray[k]] != null && !this.discs[ray[k]].equals(col)) {
+        k++;
+      }
+      if (k > 0 && k < ray.length && col.equals(this.discs[ray[k]])) {
+        for (int f = 0; f < k; f++) {
+          this.discs[ray[f]] = col;
+          this.changed[count++] = ray[f];
+          this.discHash ^= this.zobrist.flip(ray[f]);
+        }
+      }
+    }
+    // the placed disc and every flipped disc go to the mover, the flipped ones from the other
+    Player other = who == Player.A ? Player.B : Player.A;
+    this.scores[who.ordinal()] += count;
+    this.scores[other.ordinal()] -= count - 1;
+    return count;
+  }
+
+  // updates the frontier and the moves of both players after the first count cells of changed
+  // were changed. Only the empty cell that ends each line of discs running out of a changed
+  // cell can have gained or lost a move
+  private void refreshAround(int count) {
+    for (int k = 0; k < count; k++) {
+      int cell = this.changed[k];
+      this.refreshCell(cell);
+      for (int dir = 0; dir < HexGeometry.DIRECTIONS; dir++) {
+        for (int next : this.geometry.ray(cell, dir)) {
+          if (this.discs[next] == null) {
+            this.refreshCell(next);
+            break;
+          }
+        }
+      }
+    }
+  }
+
+  // recomputes whether the given cell is on the frontier and whether each player can move in it
+  private void refreshCell(int cell) {
+    if (this.discs[cell] == null && this.touchesDisc(cell)) {
+      this.addFrontier(cell);
+    } else {
+      this.removeFrontier(cell);
+    }
+    this.refreshMoves(cell);
+  }
+
 
 
 
@@ -139,26 +335,23 @@ public class ReversiModel implements Reversi {
 
 
   /**
-   * Returns the tile with the given coordinates in the given list of tiles.
+   * Returns the tile with the given coordinates in the given list of tiles. Lookups in the grid
+   * of this game use the coordinate index of the board, any other list is searched tile by tile.
    *
    * @param i    the 0-based index (from the left) of the diagonal coordinate of the tile.
    * @param j    the 0-based index (from the top) of the row coordinate of the tile.
    * @param grid the grid of tiles to find the tile of given coordinates in.
    */
   public AbstractHexagon getHexagon(int i, int j, List<NoDiscHexagon> grid) {
-    NoDiscHexagon hex = null;
-
+    if (grid == this.grid) {
+      return this.views.view(this.geometry.index(i, j));
+    }
     for (NoDiscHexagon h : grid) {
       if (h.getDiagonal() == i && h.getRow() == j) {
-        hex = h;
-        break;
+        return h;
       }
     }
-    if (hex == null) {
-      return new EmptyHexagon();
-    } else {
-      return hex;
-    }
+    return EmptyHexagon.INSTANCE;
   }
 
   /**
@@ -168,54 +361,60 @@ public class ReversiModel implements Reversi {
    * @return the board
    */
   public List<NoDiscHexagon> linkedGrid(List<NoDiscHexagon> grid) {
+    if (grid == this.grid) {
+      // the tiles of this board find their neighbors through the board itself
+      return grid;
+    }
+    int[] index = this.indexGrid(grid);
 
+    // tiles off the edge of the board are looked up as the shared EmptyHexagon
     for (NoDiscHexagon hex : grid) {
       int i = hex.getDiagonal();
       int j = hex.getRow();
-      if (i == 0) {
-        hex.setRight(this.getHexagon(i + 1, j, grid));
-        hex.setTopRight(this.getHexagon(i, j - 1, grid));
-        hex.setBottomRight(this.getHexagon(i + 1, j + 1, grid));
-        hex.setBottomLeft(this.getHexagon(i, j + 1, grid));
-      } else if (j == (2 * this.size - 2)) {
-        hex.setLeft(this.getHexagon(i - 1, j, grid));
-        hex.setRight(this.getHexagon(i + 1, j, grid));
-        hex.setTopRight(this.getHexagon(i, j - 1, grid));
-        hex.setTopLeft(this.getHexagon(i - 1, j - 1, grid));
-
-      } else if (i == (2 * this.size - 2)) {
-        hex.setLeft(this.getHexagon(i - 1, j, grid));
-        hex.setTopRight(this.getHexagon(i, j - 1, grid));
-        hex.setTopLeft(this.getHexagon(i - 1, j - 1, grid));
-        hex.setBottomLeft(this.getHexagon(i, j + 1, grid));
-      } else if (j == 0) {
-        hex.setLeft(this.getHexagon(i - 1, j, grid));
-        hex.setRight(this.getHexagon(i + 1, j, grid));
-        hex.setBottomRight(this.getHexagon(i + 1, j + 1, grid));
-        hex.setBottomLeft(this.getHexagon(i, j + 1, grid));
-      } else if (i - j == (2 * this.size - 2) / 2) {
-        hex.setLeft(this.getHexagon(i - 1, j, grid));
-        hex.setBottomLeft(this.getHexagon(i, j + 1, grid));
-        hex.setBottomRight(this.getHexagon(i + 1, j + 1, grid));
-        hex.setTopLeft(this.getHexagon(i - 1, j - 1, grid));
-      } else if (j - i == (2 * this.size - 2) / 2) {
-        hex.setRight(this.getHexagon(i + 1, j, grid));
-        hex.setBottomRight(this.getHexagon(i + 1, j + 1, grid));
-        hex.setTopRight(this.getHexagon(i, j - 1, grid));
-        hex.setTopLeft(this.getHexagon(i - 1, j - 1, grid));
-
-      } else {
-        hex.setLeft(this.getHexagon(i - 1, j, grid));
-        hex.setRight(this.getHexagon(i + 1, j, grid));
-        hex.setBottomLeft(this.getHexagon(i, j + 1, grid));
-        hex.setBottomRight(this.getHexagon(i + 1, j + 1, grid));
-        hex.setTopRight(this.getHexagon(i, j - 1, grid));
-        hex.setTopLeft(this.getHexagon(i - 1, j - 1, grid));
-      }
+      hex.setLeft(this.lookup(index, grid, i - 1, j));
+      hex.setRight(this.lookup(index, grid, i + 1, j));
+      hex.setBottomLeft(this.lookup(index, grid, i, j + 1));
+      hex.setBottomRight(this.lookup(index, grid, i + 1, j + 1));
+      hex.setTopRight(this.lookup(index, grid, i, j - 1));
+      hex.setTopLeft(this.lookup(index, grid, i - 1, j - 1));
     }
     return grid;
   }
 
+  // builds the coordinate index of the given list of tiles, mapping diagonal * (2 * size - 1) +
+  // row to the position of that tile in the list, or -1 if there is no such tile
+  private int[] indexGrid(List<NoDiscHexagon> grid) {
+    int span = 2 * this.size - 1;
+    int[] index = new int[span * span];
+    Arrays.fill(index, -1);
+    for (int k = 0; k < grid.size(); k++) {
+      NoDiscHexagon hex = grid.get(k);
+      if (hex.getDiagonal() < span && hex.getRow() < span) {
+        index[hex.getDiagonal() * span + hex.getRow()] = k;
+      }
+    }
+    return index;
+  }
+
+  // returns the position in the grid of the tile with the given coordinates, or -1 if the
+  // coordinates are off the board
+  private int slot(int[] index, int i, int j) {
+    int span = 2 * this.size - 1;
+    if (i < 0 || j < 0 || i >= span || j >= span) {
+      return -1;
+    }
+    return index[i * span + j];
+  }
+
+  // returns the tile with the given coordinates using the given coordinate index
+  private AbstractHexagon lookup(int[] index, List<NoDiscHexagon> grid, int i, int j) {
+    int k = this.slot(index, i, j);
+    if (k < 0) {
+      return EmptyHexagon.INSTANCE;
+    }
+    return grid.get(k);
+  }
+
 
   /**
    * Starts the game by setting the current state of the game to started and notifying the
@@ -301,50 +500,72 @@ public class ReversiModel implements Reversi {
     else if (who != this.turn) {
       throw new IllegalArgumentException();
     }
-    // if one of the neighbors have a hexagon with a disc in it and the subsequent hexagons make for
-    // a valid move we can make the changes to the board accordingly
-
-    else if ((!((NoDiscHexagon) where).allNeighborsEmpty())
-            && !where.checkAll((((NoDiscHexagon) where).getFilledHexagons(who.getColor())),
-            (NoDiscHexagon) where, who.getColor()).isEmpty()) {
-      List<List<FilledHexagon>> l =
-              where.checkAll((((NoDiscHexagon) where).getFilledHexagons(who.getColor())),
-                      (NoDiscHexagon) where, who.getColor());
-      NoDiscHexagon h = (NoDiscHexagon) where;
-      FilledHexagon newH = new FilledHexagon(h.getDiagonal(),
-              h.getRow(), h.getRight(), h.getLeft(), h.getTopRight(), h.getTopLeft(),
-              h.getBottomRight(), h.getBottomLeft(), who.getColor());
-      this.grid.set(this.getGrid().indexOf(where), newH);
-      this.changeNeighbors(h, newH);
-      for (List<FilledHexagon> lofh : l) {
-        for (FilledHexagon hex : lofh) {
-          FilledHexagon newHex = new FilledHexagon(hex.getDiagonal(), hex.getRow(),
-                  hex.getRight(), hex.getLeft(), hex.getTopRight(), hex.getTopLeft(),
-                  hex.getBottomRight(), hex.getBottomLeft(), who.getColor());
-          this.grid.set(this.getGrid().indexOf(hex), newHex);
-          this.changeNeighbors(hex, newHex);
-        }
-      }
-      for (ModelStatusObservers ms: controllers) {
-        ms.refreshView();
-      }
-      this.nextPlayer(who);
+    this.refreshAround(this.place(this.moveCell(who, where), who));
+    for (ModelStatusObservers ms: controllers) {
+      ms.refreshView();
     }
+    this.nextPlayer(who);
+  }
 
-    // current player cannot make a move and their turn is passed
-    else {
+  // returns the cell of the given tile after checking that the given player can move in it
+  private int moveCell(Player who, AbstractHexagon where) {
+    if (!(where instanceof NoDiscHexagon)) {
+      throw new IllegalArgumentException();
+    }
+    int cell = this.geometry.index(((NoDiscHexagon) where).getDiagonal(),
+            ((NoDiscHexagon) where).getRow());
+    if (cell < 0) {
+      throw new IllegalArgumentException();
+    } else if (this.discs[cell] != null) {
+      // the tile was handed out before a disc was placed in it
+      throw new IllegalStateException();
+    }
+    // the current player can only move in a tile where the discs in at least one direction
+    // make for a valid move
+    else if (!this.legal[who.ordinal()][cell]) {
+      throw new IllegalArgumentException();
+    }
+    return cell;
+  }
+
+  @Override
+  public MoveUndo makeSearchMove(Player who, AbstractHexagon where) {
+    if (who == null || where == null) {
       throw new IllegalArgumentException();
+    } else if (where instanceof EmptyHexagon || where instanceof FilledHexagon) {
+      throw new IllegalStateException();
     }
+    int count = this.place(this.moveCell(who, where), who);
+    int[] flipped = new int[count - 1];
+    System.arraycopy(this.changed, 1, flipped, 0, count - 1);
+    MoveUndo undo = new MoveUndo(who, this.changed[0], flipped, this.turn);
+    this.refreshAround(count);
+    this.turn = who == Player.A ? Player.B : Player.A;
+    return undo;
   }
 
-  // updates the linking of neighbor tiles after a valid move has been made in one tile
-  private void changeNeighbors(NoDiscHexagon oldHex, FilledHexagon hex) {
-    oldHex.getRight().setLeft(hex);
-    oldHex.getLeft().setRight(hex);
-    oldHex.getBottomLeft().setTopRight(hex);
-    oldHex.getBottomRight().setTopLeft(hex);
-    oldHex.getTopLeft().setBottomRight(hex);
-    oldHex.getTopRight().setBottomLeft(hex);
+  @Override
+  public void unmakeMove(MoveUndo undo) {
+    if (undo == null) {
+      throw new IllegalArgumentException();
+    }
+    Player who = undo.getPlayer();
+    Player other = who == Player.A ? Player.B : Player.A;
+    if (!who.getColor().equals(this.discs[undo.getCell()])) {
+      throw new IllegalStateException("Move is not on the board");
+    }
+    this.discs[undo.getCell()] = null;
+    this.changed[0] = undo.getCell();
+    this.discHash ^= this.zobrist.disc(who, undo.getCell());
+    for (int k = 0; k < undo.getFlipCount(); k++) {
+      this.discs[undo.getFlipped(k)] = other.getColor();
+      this.changed[k + 1] = undo.getFlipped(k);
+      this.discHash ^= this.zobrist.flip(undo.getFlipped(k));
+    }
+    this.scores[who.ordinal()] -= undo.getFlipCount() + 1;
+    this.scores[other.ordinal()] += undo.getFlipCount();
+    this.refreshAround(undo.getFlipCount() + 1);
+    this.turn = undo.getPreviousTurn();
   }
 
   /**
@@ -355,36 +576,30 @@ public class ReversiModel implements Reversi {
    * @throws IllegalStateException if the game hasn't been started yet
    */
   public int getScore(Player who) {
-    ArrayList<FilledHexagon> tiles = new ArrayList<>();
     if (!this.gameStarted) {
       throw new IllegalStateException("Game has not started");
     }
+    return this.scores[who.ordinal()];
+  }
 
-    for (NoDiscHexagon hex : this.grid) {
-      if (hex instanceof FilledHexagon) {
-        if (((FilledHexagon) hex).getColor().equals(who.getColor())) {
-          tiles.add((FilledHexagon) hex);
-        }
-      }
+  @Override
+  public long positionHash() {
+    return this.discHash ^ this.zobrist.side(this.turn);
+  }
+
+  @Override
+  public ScoreSnapshot getScoreSnapshot() {
+    if (!this.gameStarted) {
+      throw new IllegalStateException("Game has not started");
     }
-    return tiles.size();
+    int a = this.scores[Player.A.ordinal()];
+    int b = this.scores[Player.B.ordinal()];
+    return new ScoreSnapshot(a, b, this.discs.length - a - b);
   }
 
   @Override
   public AbstractHexagon getHex(int i, int j) {
-    NoDiscHexagon hex = null;
-
-    for (NoDiscHexagon h : this.grid) {
-      if (h.getDiagonal() == i && h.getRow() == j) {
-        hex = h;
-        break;
-      }
-    }
-    if (hex == null) {
-      return new EmptyHexagon();
-    } else {
-      return hex;
-    }
+    return this.views.view(this.geometry.index(i, j));
   }
 
   /**
@@ -399,18 +614,26 @@ public class ReversiModel implements Reversi {
     if (!this.gameStarted) {
       throw new IllegalStateException("Game has not started");
     }
-    for (NoDiscHexagon hex : this.grid) {
-      if (!(hex instanceof FilledHexagon)) {
-        if ((!hex.allNeighborsEmpty())
-                && ((!hex.checkAll(((hex).getFilledHexagons(Color.BLACK)),
-                hex, Color.BLACK).isEmpty())
-                || (!hex.checkAll(((hex).getFilledHexagons(Color.WHITE)),
-                hex, Color.WHITE).isEmpty()))) {
-          return false;
-        }
+    return this.legalCount[Player.A.ordinal()] == 0 && this.legalCount[Player.B.ordinal()] == 0;
+  }
+
+  /**
+   * Returns the tiles the given player can currently place a disc in. Only the tiles on the
+   * frontier of the board, the empty tiles next to a disc, are looked at.
+   *
+   * @param who the player to find the moves of.
+   * @return the tiles where a disc of the given player would capture at least one disc, in no
+   *         particular order.
+   */
+  @Override
+  public List<NoDiscHexagon> legalMoves(Player who) {
+    List<NoDiscHexagon> moves = new ArrayList<>(this.legalCount[who.ordinal()]);
+    for (int k = 0; k < this.frontierSize; k++) {
+      if (this.legal[who.ordinal()][this.frontier[k]]) {
+        moves.add(this.views.tile(this.frontier[k]));
       }
     }
-    return true;
+    return moves;
   }
 
   /**
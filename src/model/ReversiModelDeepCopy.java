@@ -2,7 +2,9 @@ package model;
 
 /**
  * A class responsible for making a deep copy of the
- * ReversiModel.
+ * ReversiModel. The copy shares nothing with the original, so a
+ * search can make and take back moves on it with makeSearchMove and
+ * unmakeMove without touching the game being played.
  */
 public class ReversiModelDeepCopy implements Cloneable {
 
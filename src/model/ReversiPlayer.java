@@ -23,4 +23,11 @@ public interface ReversiPlayer {
    * @return The Player who is currently playing the game.
    */
   Player getPlay();
+
+  /**
+   * Stops any threads the player thinks on, once the game it plays is over. Does nothing for a
+   * player that only thinks on the calling thread.
+   */
+  default void shutdown() {
+  }
 }
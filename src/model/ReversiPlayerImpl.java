@@ -1,20 +1,81 @@
 package model;
 
+import strategy.EndgameSolver;
+import strategy.Evaluator;
+import strategy.ParallelMode;
 import strategy.ReversiStrategy;
 
 /**
  * A simple Player implementation that delegates most of its
- * complexity to a for choosing where to play next.
+ * complexity to a for choosing where to play next. A player can
+ * be asked to hand over to an EndgameSolver once few tiles are
+ * left empty, which plays the rest of the game perfectly.
  */
 public class ReversiPlayerImpl implements ReversiPlayer {
   private final Player player;
   private final ReversiStrategy strategy;
 
+  /**
+   * Constructs a player that plays every move with the given strategy.
+   * @param player The Player this player moves for.
+   * @param strategy The strategy that chooses the moves.
+   */
   public ReversiPlayerImpl(Player player, ReversiStrategy strategy) {
     this.player = player;
     this.strategy = strategy;
   }
 
+  /**
+   * Constructs a player that plays with the given strategy until the given number of tiles are
+   * left empty.
+   * @param player The Player this player moves for.
+   * @param strategy The strategy that chooses the moves before the endgame.
+   * @param endgameEmpties The number of empty tiles at which the EndgameSolver takes over, or 0
+   *                       to always play with the given strategy.
+   * @throws IllegalArgumentException if the strategy is null or the number of empty tiles is
+   *                                  negative or more than the solver takes on.
+   */
+  public ReversiPlayerImpl(Player player, ReversiStrategy strategy, int endgameEmpties) {
+    if (strategy == null) {
+      throw new IllegalArgumentException("Strategy cannot be null");
+    }
+    this.player = player;
+    this.strategy = endgameEmpties == 0 ? strategy
+            : new EndgameSolver(strategy, endgameEmpties, false);
+  }
+
+  /**
+   * Constructs a player that searches for its moves on several threads, deepening its search
+   * one move at a time until the time limit runs out, until the given number of tiles are
+   * left empty.
+   * @param player The Player this player moves for.
+   * @param mode How the search is spread over the threads.
+   * @param evaluator The Evaluator that scores the positions at the end of the search.
+   * @param timeLimit The time in milliseconds each move may take.
+   * @param threads The number of threads to search with.
+   * @param endgameEmpties The number of empty tiles at which the EndgameSolver takes over, or 0
+   *                       to always search with the given mode.
+   * @throws IllegalArgumentException if the mode or evaluator is null, the time limit is not
+   *                                  positive, the number of threads is less than 1 or the
+   *                                  number of empty tiles is negative or more than the solver
+   *                                  takes on.
+   */
+  public ReversiPlayerImpl(Player player, ParallelMode mode, Evaluator evaluator,
+                           long timeLimit, int threads, int endgameEmpties) {
+    this(player, parallel(mode, evaluator, timeLimit, threads), endgameEmpties);
+  }
+
+  // the strategy of a player searching on several threads, checked before it is made
+  private static ReversiStrategy parallel(ParallelMode mode, Evaluator evaluator,
+                                          long timeLimit, int threads) {
+    if (mode == null) {
+      throw new IllegalArgumentException("Mode cannot be null");
+    } else if (timeLimit <= 0) {
+      throw new IllegalArgumentException("Time limit must be positive");
+    }
+    return mode.create(Integer.MAX_VALUE, evaluator, timeLimit, threads);
+  }
+
   /**
    * Allows the player to choose the tile
    * they want to move in and play the game.
@@ -34,4 +95,12 @@ public class ReversiPlayerImpl implements ReversiPlayer {
   public Player getPlay() {
     return this.player;
   }
+
+  /**
+   * Stops any threads the player's strategy searches on.
+   */
+  @Override
+  public void shutdown() {
+    this.strategy.shutdown();
+  }
 }
\ No newline at end of file
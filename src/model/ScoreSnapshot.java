@@ -0,0 +1,55 @@
+package model;
+
+/**
+ * The scores of both players and the number of tiles with no disc in them, taken together at
+ * one point of a game.
+ */
+public final class ScoreSnapshot {
+
+  // the number of discs of Player A (black) and Player B (white)
+  private final int scoreA;
+  private final int scoreB;
+
+  // the number of tiles with no disc in them
+  private final int empty;
+
+  /**
+   * Constructs a ScoreSnapshot.
+   *
+   * @param scoreA the number of discs of Player A.
+   * @param scoreB the number of discs of Player B.
+   * @param empty  the number of tiles with no disc in them.
+   * @throws IllegalArgumentException if any of the counts is negative.
+   */
+  public ScoreSnapshot(int scoreA, int scoreB, int empty) {
+    if (scoreA < 0 || scoreB < 0 || empty < 0) {
+      throw new IllegalArgumentException("Counts cannot be negative");
+    }
+    this.scoreA = scoreA;
+    this.scoreB = scoreB;
+    this.empty = empty;
+  }
+
+  /**
+   * Returns the score of the given player, which is the number of discs of that player.
+   *
+   * @param who the player whose score is returned.
+   * @return the score of the player.
+   */
+  public int getScore(Player who) {
+    return who == Player.A ? this.scoreA : this.scoreB;
+  }
+
+  /**
+   * Returns the number of tiles with no disc in them.
+   * @return the number of empty tiles.
+   */
+  public int getEmpty() {
+    return this.empty;
+  }
+
+  @Override
+  public String toString() {
+    return "A: " + this.scoreA + ", B: " + this.scoreB + ", empty: " + this.empty;
+  }
+}
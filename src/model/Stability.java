@@ -0,0 +1,331 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * The discs of a BitboardReversi that can never be flipped again, kept up to date as moves are
+ * played. A disc can only be flipped along one of the three lines through it, so it is stable
+ * once it is safe along all three. It is safe along a line if the tile next to it on either
+ * side is off the board, can never be filled, or holds a stable disc of its own color, or if
+ * the line is filled on both sides up to the edge of the board or a tile that can never be
+ * filled, leaving nowhere to place a disc that could flip it. Stable discs stay stable, so
+ * after a move only the discs it placed and flipped, the discs of lines it filled and the
+ * neighbors of discs newly found stable have to be looked at again. Whether a line is filled is
+ * checked against a precomputed mask of the tiles between its ends.
+ */
+final class Stability {
+
+  // one direction of each of the three lines through a tile
+  private static final int[] AXES = {HexGeometry.RIGHT, HexGeometry.TOP_RIGHT,
+    HexGeometry.TOP_LEFT};
+
+  private final HexGeometry geometry;
+
+  // the discs of the board, shared with it
+  private final long[] black;
+  private final long[] white;
+
+  // the empty tiles that can never be filled, and for each cell and each of the three lines
+  // through it, the tiles of the line that lie between the edges of the board and the tiles
+  // that can never be filled, kept as words from segmentWord on. Both are shared by copies and
+  // never changed
+  private long[] dead;
+  private long[][] segments;
+  private int[] segmentWord;
+
+  // the stable discs of both colors
+  private final long[] stable;
+
+  // the discs waiting to be looked at, and one bit for each of them
+  private final int[] pending;
+  private final long[] waiting;
+  private int top;
+
+  // the discs found stable by the last update
+  private final int[] added;
+  private int addedCount;
+
+  /**
+   * Finds the stable discs of the given board.
+   *
+   * @param geometry the layout of the board.
+   * @param black    the black discs of the board, which are read as the board changes.
+   * @param white    the white discs of the board, which are read as the board changes.
+   */
+  Stability(HexGeometry geometry, long[] black, long[] white) {
+    this(geometry, black, white, new long[geometry.words()], null, null);
+    boolean[] fillable = new boolean[geometry.cellCount()];
+    for (int cell = 0; cell < fillable.length; cell++) {
+      fillable[cell] = this.occupied(cell);
+    }
+    // a disc placed in a tile must capture along a line that runs through the next two tiles,
+    // so a tile can be filled only once both of them can be
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (int cell = 0; cell < fillable.length; cell++) {
+        for (int dir = 0; dir < HexGeometry.DIRECTIONS && !fillable[cell]; dir++) {
+          int next = geometry.neighbor(cell, dir);
+          if (next >= 0 && fillable[next]) {
+            int beyond = geometry.neighbor(next, dir);
+            if (beyond >= 0 && fillable[beyond]) {
+              fillable[cell] = true;
+              changed = true;
+            }
+          }
+        }
+      }
+    }
+    for (int cell = 0; cell < fillable.length; cell++) {
+      if (!fillable[cell]) {
+        this.dead[cell >>> 6] |= 1L << cell;
+      }
+    }
+    this.segments = new long[fillable.length * AXES.length][];
+    this.segmentWord = new int[fillable.length * AXES.length];
+    for (int cell = 0; cell < fillable.length; cell++) {
+      for (int a = 0; a < AXES.length; a++) {
+        if (fillable[cell] && this.segments[cell * AXES.length + a] == null) {
+          this.fillSegment(cell, a);
+        }
+      }
+    }
+    this.recompute();
+  }
+
+  // makes the mask of the tiles that can be filled on the given line through the given cell,
+  // shared by every one of them
+  private void fillSegment(int cell, int axis) {
+    int dir = AXES[axis];
+    int back = HexGeometry.opposite(dir);
+    int first = cell;
+    for (int next = this.geometry.neighbor(first, back); next >= 0 && !testBit(this.dead, next);
+         next = this.geometry.neighbor(first, back)) {
+      first = next;
+    }
+    int low = Integer.MAX_VALUE;
+    int high = -1;
+    for (int next = first; next >= 0 && !testBit(this.dead, next);
+         next = this.geometry.neighbor(next, dir)) {
+      low = Math.min(low, next >>> 6);
+      high = Math.max(high, next >>> 6);
+    }
+    long[] mask = new long[high - low + 1];
+    for (int next = first; next >= 0 && !testBit(this.dead, next);
+         next = this.geometry.neighbor(next, dir)) {
+      mask[(next >>> 6) - low] |= 1L << next;
+      this.segments[next * AXES.length + axis] = mask;
+      this.segmentWord[next * AXES.length + axis] = low;
+    }
+  }
+
+  /**
+   * Copies the stable discs of another board of the same size.
+   *
+   * @param other the stability of the board copied.
+   * @param black the black discs of the new board, which are read as it changes.
+   * @param white the white discs of the new board, which are read as it changes.
+   */
+  Stability(Stability other, long[] black, long[] white) {
+    this(other.geometry, black, white, other.dead, other.segments, other.segmentWord);
+    System.arraycopy(other.stable, 0, this.stable, 0, this.stable.length);
+  }
+
+  private Stability(HexGeometry geometry, long[] black, long[] white, long[] dead,
+                    long[][] segments, int[] segmentWord) {
+    this.geometry = geometry;
+    this.black = black;
+    this.white = white;
+    this.dead = dead;
+    this.segments = segments;
+    this.segmentWord = segmentWord;
+    this.stable = new long[geometry.words()];
+    this.pending = new int[geometry.cellCount()];
+    this.waiting = new long[geometry.words()];
+    this.added = new int[geometry.cellCount()];
+  }
+
+  /**
+   * Sets the stable discs to those of another board of the same size without allocating
+   * anything.
+   *
+   * @param other the stability of the board copied.
+   */
+  void copyFrom(Stability other) {
+    this.dead = other.dead;
+    this.segments = other.segments;
+    this.segmentWord = other.segmentWord;
+    System.arraycopy(other.stable, 0, this.stable, 0, this.stable.length);
+  }
+
+  /**
+   * Finds the stable discs of the board from scratch. The tiles that can never be filled are
+   * not looked for again, since they stay the same for the rest of the game.
+   */
+  void recompute() {
+    Arrays.fill(this.stable, 0L);
+    for (int cell = 0; cell < this.geometry.cellCount(); cell++) {
+      if (this.occupied(cell)) {
+        this.push(cell);
+      }
+    }
+    this.run();
+  }
+
+  /**
+   * Finds the discs made stable by a disc just placed in the given cell, which are then listed
+   * by added.
+   *
+   * @param cell the cell of the move, after its discs have been flipped.
+   */
+  void update(int cell) {
+    long[] own = testBit(this.black, cell) ? this.black : this.white;
+    this.push(cell);
+    // the flipped discs are among the discs of the mover in a row next to the move
+    for (int dir = 0; dir < HexGeometry.DIRECTIONS; dir++) {
+      for (int next = this.geometry.neighbor(cell, dir); next >= 0 && testBit(own, next);
+           next = this.geometry.neighbor(next, dir)) {
+        this.push(next);
+      }
+    }
+    for (int a = 0; a < AXES.length; a++) {
+      if (this.full(cell, a)) {
+        long[] mask = this.segments[cell * AXES.length + a];
+        int base = this.segmentWord[cell * AXES.length + a];
+        for (int w = 0; w < mask.length; w++) {
+          for (long bits = mask[w]; bits != 0; bits &= bits - 1) {
+            this.push(((base + w) << 6) + Long.numberOfTrailingZeros(bits));
+          }
+        }
+      }
+    }
+    this.run();
+  }
+
+  /**
+   * Returns the number of discs found stable by the last update.
+   *
+   * @return the number of discs.
+   */
+  int addedCount() {
+    return this.addedCount;
+  }
+
+  /**
+   * Returns one of the discs found stable by the last update.
+   *
+   * @param k the position of the disc, from 0 to addedCount() - 1.
+   * @return the cell of the disc.
+   */
+  int added(int k) {
+    return this.added[k];
+  }
+
+  /**
+   * Marks the given discs as no longer stable, when the move that made them stable is taken
+   * back.
+   *
+   * @param cells the cells of the discs.
+   */
+  void remove(int[] cells) {
+    for (int cell : cells) {
+      this.stable[cell >>> 6] &= ~(1L << cell);
+    }
+  }
+
+  /**
+   * Returns true if the disc in the given cell can never be flipped.
+   *
+   * @param cell a cell index on the board.
+   * @return true if the cell holds a stable disc.
+   */
+  boolean isStable(int cell) {
+    return testBit(this.stable, cell);
+  }
+
+  /**
+   * Returns the number of stable discs among the given discs.
+   *
+   * @param discs the discs of one player.
+   * @return the number of them that are stable.
+   */
+  int count(long[] discs) {
+    int total = 0;
+    for (int w = 0; w < discs.length; w++) {
+      total += Long.bitCount(discs[w] & this.stable[w]);
+    }
+    return total;
+  }
+
+  // looks at the waiting discs, and the neighbors of every disc found stable, until none are
+  // left
+  private void run() {
+    this.addedCount = 0;
+    while (this.top > 0) {
+      int cell = this.pending[--this.top];
+      this.waiting[cell >>> 6] &= ~(1L << cell);
+      if (testBit(this.stable, cell) || !this.safe(cell)) {
+        continue;
+      }
+      this.stable[cell >>> 6] |= 1L << cell;
+      this.added[this.addedCount++] = cell;
+      for (int dir = 0; dir < HexGeometry.DIRECTIONS; dir++) {
+        int next = this.geometry.neighbor(cell, dir);
+        if (next >= 0 && this.occupied(next)) {
+          this.push(next);
+        }
+      }
+    }
+  }
+
+  // adds the disc in the given cell to the discs waiting to be looked at, unless it is stable
+  // or already waiting
+  private void push(int cell) {
+    if (!testBit(this.stable, cell) && !testBit(this.waiting, cell)) {
+      this.waiting[cell >>> 6] |= 1L << cell;
+      this.pending[this.top++] = cell;
+    }
+  }
+
+  // returns true if the disc in the given cell is safe along all three lines through it
+  private boolean safe(int cell) {
+    long[] own = testBit(this.black, cell) ? this.black : this.white;
+    for (int a = 0; a < AXES.length; a++) {
+      int dir = AXES[a];
+      if (!this.anchored(cell, dir, own) && !this.anchored(cell, HexGeometry.opposite(dir), own)
+              && !this.full(cell, a)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // returns true if the tile next to the given cell in the given direction is off the board,
+  // can never be filled or holds a stable disc among the given discs
+  private boolean anchored(int cell, int dir, long[] own) {
+    int next = this.geometry.neighbor(cell, dir);
+    return next < 0 || testBit(this.dead, next)
+            || (testBit(own, next) && testBit(this.stable, next));
+  }
+
+  // returns true if the given line through the given cell is filled on both sides up to the
+  // edge of the board or a tile that can never be filled
+  private boolean full(int cell, int axis) {
+    long[] mask = this.segments[cell * AXES.length + axis];
+    int base = this.segmentWord[cell * AXES.length + axis];
+    for (int w = 0; w < mask.length; w++) {
+      if ((mask[w] & ~(this.black[base + w] | this.white[base + w])) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean occupied(int cell) {
+    return testBit(this.black, cell) || testBit(this.white, cell);
+  }
+
+  private static boolean testBit(long[] bits, int cell) {
+    return (bits[cell >>> 6] & (1L << cell)) != 0;
+  }
+}
@@ -0,0 +1,86 @@
+package model;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The random keys used to hash positions of a board of a given size. The hash of a position is
+ * the exclusive or of the key of every disc on the board, and of the side key when it is
+ * Player B's turn, so placing, flipping or removing a disc updates the hash with one or two
+ * exclusive ors. The keys are generated from a fixed seed, so the same position always has the
+ * same hash, in every model and in every run of the program.
+ */
+public final class Zobrist {
+
+  private static final ConcurrentMap<Integer, Zobrist> CACHE = new ConcurrentHashMap<>();
+
+  // the key of a black disc and of a white disc in every cell
+  private final long[] black;
+  private final long[] white;
+
+  // the key of a disc changing color in every cell, black ^ white
+  private final long[] flip;
+
+  // the key added when it is Player B's turn
+  private final long side;
+
+  private Zobrist(int size) {
+    int cells = HexGeometry.of(size).cellCount();
+    SplittableRandom random = new SplittableRandom(0x9E3779B97F4A7C15L * size);
+    this.black = new long[cells];
+    this.white = new long[cells];
+    this.flip = new long[cells];
+    for (int c = 0; c < cells; c++) {
+      this.black[c] = random.nextLong();
+      this.white[c] = random.nextLong();
+      this.flip[c] = this.black[c] ^ this.white[c];
+    }
+    this.side = random.nextLong();
+  }
+
+  /**
+   * Returns the shared keys for boards of the given size.
+   *
+   * @param size the number of tiles along each side of the board.
+   * @return the keys of a board of that size.
+   * @throws IllegalArgumentException if the size is less than or equal to 1.
+   */
+  public static Zobrist of(int size) {
+    if (size <= 1) {
+      throw new IllegalArgumentException("Size must be greater than 1");
+    }
+    return CACHE.computeIfAbsent(size, Zobrist::new);
+  }
+
+  /**
+   * Returns the key of a disc of the given player in the given cell.
+   *
+   * @param who  the player who owns the disc.
+   * @param cell a cell index on the board.
+   * @return the key of the disc.
+   */
+  public long disc(Player who, int cell) {
+    return who == Player.A ? this.black[cell] : this.white[cell];
+  }
+
+  /**
+   * Returns the change in the hash when the disc in the given cell changes color.
+   *
+   * @param cell a cell index on the board.
+   * @return the key of flipping the disc.
+   */
+  public long flip(int cell) {
+    return this.flip[cell];
+  }
+
+  /**
+   * Returns the key that is part of the hash when the given player is to move.
+   *
+   * @param toMove the player whose turn it is.
+   * @return the side key for Player B, 0 for Player A.
+   */
+  public long side(Player toMove) {
+    return toMove == Player.B ? this.side : 0L;
+  }
+}
@@ -0,0 +1,363 @@
+package strategy;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import model.BitboardReversi;
+import model.HexGeometry;
+import model.MoveUndo;
+import model.NoDiscHexagon;
+import model.Player;
+import model.ReadOnlyReversi;
+
+/**
+ * One alpha-beta search of a copy of the board, shared by the search strategies. It holds the
+ * move lists of every ply so that searching does not allocate anything but the undo records,
+ * and it is used by one thread at a time; parallel searches give every thread its own
+ * AlphaBetaSearch on its own copy of the board and share only the TranspositionTable.
+ */
+final class AlphaBetaSearch {
+
+  // how many nodes are searched between looks at the clock
+  private static final int CLOCK_INTERVAL = 1024;
+
+  // a score beyond every real score, used for the open ends of a search window
+  static final int INFINITY = 2 * AlphaBetaStrategy.WIN;
+
+  private final BitboardReversi board;
+  private final Evaluator evaluator;
+  private final TranspositionTable table;
+  private final int depth;
+
+  // the System.nanoTime at which the search must stop, or 0 for no limit
+  private final long deadline;
+
+  // nodes left to search before the clock is read again
+  private int untilClock;
+
+  // true once the search has a move to fall back on if time runs out
+  private boolean hasMove;
+
+  // set by another thread to stop this search, or null if only the deadline stops it
+  private AtomicBoolean stop;
+
+  // the score of the best root move of the last search of every root move that finished
+  private int score;
+
+  // the legal moves at each ply and their ordering keys. A pass does not use up depth, so
+  // there can be up to two plies for every move searched
+  private final int[][] moves;
+  private final int[][] keys;
+
+  // the order moves are tried in, learned as the search goes
+  private final MoveOrdering ordering;
+
+  /**
+   * Prepares a search of the given board.
+   * @param board The board to search, which the search plays on and always restores.
+   * @param evaluator The Evaluator that scores the positions at the end of the search.
+   * @param table The table shared with every other search of this move.
+   * @param depth The deepest the search may look, which is cut to the number of empty tiles.
+   * @param deadline The System.nanoTime at which to give up, or 0 for no limit.
+   */
+  AlphaBetaSearch(BitboardReversi board, Evaluator evaluator, TranspositionTable table,
+                  int depth, long deadline) {
+    this.board = board;
+    this.evaluator = evaluator;
+    this.table = table;
+    // the evaluator may count stable discs at every leaf
+    board.trackStability();
+    HexGeometry geometry = board.getGeometry();
+    // no line of play is longer than the number of empty tiles
+    int empty = geometry.cellCount() - board.count(Player.A) - board.count(Player.B);
+    this.depth = Math.max(1, Math.min(depth, empty));
+    this.deadline = deadline;
+    this.untilClock = CLOCK_INTERVAL;
+    this.moves = new int[2 * this.depth + 2][geometry.cellCount()];
+    this.keys = new int[2 * this.depth + 2][geometry.cellCount()];
+    this.ordering = new MoveOrdering(geometry, 2 * this.depth + 2);
+  }
+
+  /**
+   * Returns the deepest this search may look.
+   */
+  int getDepth() {
+    return this.depth;
+  }
+
+  /**
+   * Returns the score, for the player who moves, of the move returned by the last call to
+   * bestMove or deepen that searched every root move to the end. It is 0 before then.
+   */
+  int getScore() {
+    return this.score;
+  }
+
+  /**
+   * Lets the search give up when its time is up, once the caller has a move to fall back on.
+   * Until then the search always runs to the end.
+   */
+  void allowTimeout() {
+    this.hasMove = true;
+  }
+
+  /**
+   * Makes the search give up as soon as the given flag is set, whether or not it has a move.
+   * A search also gives up as soon as its thread is interrupted.
+   */
+  void stopWhen(AtomicBoolean stop) {
+    this.stop = stop;
+  }
+
+  /**
+   * Returns the cell of the best move for the given player, or -1 if they cannot move. With
+   * a deadline the search is repeated one move deeper each time, trying the best move of the
+   * last search first, until the time is up. A search without a deadline that is stopped
+   * returns the move it would have tried first.
+   */
+  int bestMove(Player who) {
+    int count = this.orderRoot(who);
+    if (count == 0) {
+      return -1;
+    } else if (this.deadline == 0) {
+      try {
+        return this.searchRoot(who, count, this.depth);
+      } catch (OutOfTime e) {
+        return this.rootMove(0);
+      }
+    }
+    return this.deepen(who, count, 1, this.rootMove(0));
+  }
+
+  /**
+   * Searches the root moves filled by orderRoot one move deeper each time, starting at the given
+   * depth, until the deepest depth is done or the search is stopped, and returns the cell of the
+   * best move of the deepest search that finished, or the given fallback if none did.
+   */
+  int deepen(Player who, int count, int from, int fallback) {
+    int best = fallback;
+    for (int depth = from; depth <= this.depth; depth++) {
+      try {
+        best = this.searchRoot(who, count, depth);
+      } catch (OutOfTime e) {
+        break;
+      }
+      this.allowTimeout();
+      this.toFront(this.moves[0], best, count);
+    }
+    return best;
+  }
+
+  /**
+   * Fills the root move list with the legal moves of the given player, best first, and returns
+   * how many there are.
+   */
+  int orderRoot(Player who) {
+    long entry = this.table.probe(this.board.positionHash(who));
+    return this.order(who, 0, TranspositionTable.move(entry));
+  }
+
+  /**
+   * Returns the root move at the given position of the list filled by orderRoot.
+   */
+  int rootMove(int k) {
+    return this.moves[0][k];
+  }
+
+  /**
+   * Moves the given cell to the front of the root move list, so the next search tries it first.
+   */
+  void rootFirst(int cell, int count) {
+    this.toFront(this.moves[0], cell, count);
+  }
+
+  /**
+   * Returns the score for the given player of moving in the given cell, searched to the given
+   * depth counting that move, within the window alpha to beta.
+   * @throws OutOfTime if the time ran out after allowTimeout was called, or the search was
+   *                    stopped.
+   */
+  int searchMove(Player who, int cell, int depth, int alpha, int beta) {
+    MoveUndo undo = this.board.makeSearchMove(who, cell);
+    try {
+      return -this.search(next(who), depth - 1, 1, -beta, -alpha, false);
+    } finally {
+      this.board.unmakeMove(undo);
+    }
+  }
+
+  /**
+   * Stores the result of a finished search of every root move in the table.
+   */
+  void storeRoot(Player who, int depth, int score, int cell) {
+    this.table.store(this.board.positionHash(who), depth, score, TranspositionTable.EXACT, cell);
+  }
+
+  // searches each root move to the given depth and returns the cell of the best one
+  private int searchRoot(Player who, int count, int depth) {
+    int best = -1;
+    int alpha = -INFINITY;
+    for (int k = 0; k < count; k++) {
+      int cell = this.moves[0][k];
+      int score = this.searchMove(who, cell, depth, alpha, INFINITY);
+      if (score > alpha) {
+        alpha = score;
+        best = cell;
+      }
+    }
+    this.storeRoot(who, depth, alpha, best);
+    this.score = alpha;
+    return best;
+  }
+
+  // moves the given cell to the front of the list, keeping the order of the others. Nothing
+  // changes if the cell is not in the list
+  private void toFront(int[] list, int cell, int count) {
+    int k = 0;
+    while (k < count && list[k] != cell) {
+      k++;
+    }
+    if (k == count) {
+      return;
+    }
+    for (; k > 0; k--) {
+      list[k] = list[k - 1];
+    }
+    list[0] = cell;
+  }
+
+  // gives up the search if it was stopped or its thread interrupted, or if it has a move to
+  // fall back on and its time is up
+  private void checkClock() {
+    if (--this.untilClock > 0) {
+      return;
+    }
+    this.untilClock = CLOCK_INTERVAL;
+    if (this.stop != null && this.stop.get()) {
+      throw OutOfTime.INSTANCE;
+    } else if (Thread.currentThread().isInterrupted()) {
+      throw OutOfTime.INSTANCE;
+    } else if (this.hasMove && this.deadline != 0 && System.nanoTime() - this.deadline > 0) {
+      throw OutOfTime.INSTANCE;
+    }
+  }
+
+  // the score of the position for the given player to move, searched to the given depth
+  private int search(Player who, int depth, int ply, int alpha, int beta, boolean passed) {
+    this.checkClock();
+    if (depth == 0) {
+      return this.evaluator.evaluate(this.board, who);
+    }
+    long hash = this.board.positionHash(who);
+    long entry = this.table.probe(hash);
+    if (entry != TranspositionTable.MISS && TranspositionTable.depth(entry) >= depth) {
+      int score = TranspositionTable.score(entry);
+      int bound = TranspositionTable.bound(entry);
+      if (bound == TranspositionTable.EXACT
+              || (bound == TranspositionTable.LOWER && score >= beta)
+              || (bound == TranspositionTable.UPPER && score <= alpha)) {
+        return score;
+      }
+    }
+    int count = this.order(who, ply, TranspositionTable.move(entry));
+    if (count == 0) {
+      if (passed) {
+        return finalScore(this.board, who);
+      }
+      return -this.search(next(who), depth, ply + 1, -beta, -alpha, true);
+    }
+    int start = alpha;
+    int best = -INFINITY;
+    int bestCell = -1;
+    for (int k = 0; k < count; k++) {
+      int cell = this.moves[ply][k];
+      MoveUndo undo = this.board.makeSearchMove(who, cell);
+      int score;
+      try {
+        score = -this.search(next(who), depth - 1, ply + 1, -beta, -alpha, false);
+      } finally {
+        this.board.unmakeMove(undo);
+      }
+      if (score > best) {
+        best = score;
+        bestCell = cell;
+        alpha = Math.max(alpha, score);
+        if (score >= beta) {
+          this.ordering.cutoff(who, ply, cell, depth);
+          break;
+        }
+      }
+    }
+    int bound = TranspositionTable.EXACT;
+    if (best <= start) {
+      bound = TranspositionTable.UPPER;
+    } else if (best >= beta) {
+      bound = TranspositionTable.LOWER;
+    }
+    this.table.store(hash, depth, best, bound, bestCell);
+    return best;
+  }
+
+  // fills the move list of the given ply with the legal moves of the given player, the given
+  // move first and the others in the order of the MoveOrdering, and returns how many there are
+  private int order(Player who, int ply, int first) {
+    int count = this.board.legalMoves(who, this.moves[ply]);
+    this.ordering.order(who, ply, first, this.moves[ply], this.keys[ply], count);
+    return count;
+  }
+
+  /**
+   * Returns the System.nanoTime by which a search started now with the given time limit in
+   * milliseconds must stop, or 0 if the time limit is 0.
+   */
+  static long deadline(long timeLimit) {
+    if (timeLimit <= 0) {
+      return 0;
+    }
+    return System.nanoTime() + timeLimit * 1_000_000L;
+  }
+
+  /**
+   * Returns the tile of the given game at the given cell, or null if the cell is -1.
+   */
+  static NoDiscHexagon tile(ReadOnlyReversi model, int cell) {
+    if (cell < 0) {
+      return null;
+    }
+    HexGeometry geometry = HexGeometry.of(model.getBoardSize());
+    return (NoDiscHexagon) model.getHex(geometry.diagonal(cell), geometry.row(cell));
+  }
+
+  /**
+   * Returns the score of a position where neither player can move, for the given player.
+   */
+  static int finalScore(BitboardReversi board, Player who) {
+    int diff = board.count(who) - board.count(next(who));
+    if (diff > 0) {
+      return AlphaBetaStrategy.WIN + diff;
+    } else if (diff < 0) {
+      return -AlphaBetaStrategy.WIN + diff;
+    }
+    return 0;
+  }
+
+  /**
+   * Returns who the next player will be.
+   */
+  static Player next(Player who) {
+    return who == Player.A ? Player.B : Player.A;
+  }
+
+  /**
+   * Thrown out of a search when its time is up. It carries no stack trace, so it is cheap to
+   * throw from deep inside the search.
+   */
+  static final class OutOfTime extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    static final OutOfTime INSTANCE = new OutOfTime();
+
+    private OutOfTime() {
+      super(null, null, false, false);
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package strategy;
+
+import model.BitboardReversi;
+import model.NoDiscHexagon;
+import model.Player;
+import model.Reversi;
+
+/**
+ * An implementation of a ReversiStrategy that looks ahead a fixed number of moves.
+ * Strategy: searches every legal move of both players down to the given depth with alpha-beta
+ * pruning and picks the move that leads to the best position for the player, as scored by
+ * an Evaluator, assuming the opponent always answers with their own best move. Moves are
+ * searched in the order of a MoveOrdering: the best move found for the position before, then
+ * the moves that cut off the search of similar positions, then by the weight of their tile,
+ * so the best move is usually found early and most of the other moves are cut off. A player
+ * with no legal move passes, and a position where neither player can move is scored as a win,
+ * loss or draw.
+ * Results are kept in a TranspositionTable, so a position reached again by a different order
+ * of moves, or searched again by the next deeper search, is not searched twice.
+ * When given a time limit, the strategy searches one move deep, then two, and so on, and
+ * returns the best move of the deepest search that finished in time, so that it always
+ * answers within about the time limit whatever the size of the board.
+ */
+public class AlphaBetaStrategy implements ReversiStrategy {
+
+  /**
+   * The score of a won game, which is larger than any score an Evaluator may give. The disc
+   * difference is added to it so that bigger wins score higher.
+   */
+  public static final int WIN = 1 << 24;
+
+  /**
+   * The number of entries in the transposition table of a strategy unless another is given,
+   * which take 16 MB once the table is made.
+   */
+  public static final int DEFAULT_TABLE_ENTRIES = 1 << 20;
+
+  //how many moves ahead the search looks, or the deepest it may look with a time limit
+  private final int depth;
+
+  //scores the positions at the end of the search
+  private final Evaluator evaluator;
+
+  //the time in milliseconds each move may take, or 0 to always search to the full depth
+  private final long timeLimit;
+
+  //the number of entries in the transposition table
+  private final int tableEntries;
+
+  //the results of earlier searches, kept from one move to the next, or null until the first
+  //move, so a strategy that is made but never plays does not pay for it
+  private TranspositionTable table;
+
+  /**
+   * Constructs an AlphaBetaStrategy with a transposition table of the given size. With a time
+   * limit the search deepens one move at a time until the time runs out or the given depth is
+   * reached.
+   * @param depth The most moves to look ahead, counting the player's own move.
+   * @param evaluator The Evaluator that scores the positions at the end of the search.
+   * @param timeLimit The time in milliseconds each move may take, or 0 for no limit.
+   * @param tableEntries The number of entries in the transposition table, each of which takes
+   *                     16 bytes, rounded up to a power of two.
+   * @throws IllegalArgumentException if the depth is less than 1, the evaluator is null, the
+   *                                  time limit is negative or the number of entries is not
+   *                                  between 1 and 2^29.
+   */
+  public AlphaBetaStrategy(int depth, Evaluator evaluator, long timeLimit, int tableEntries) {
+    if (depth < 1) {
+      throw new IllegalArgumentException("Depth must be at least 1");
+    } else if (evaluator == null) {
+      throw new IllegalArgumentException("Evaluator cannot be null");
+    } else if (timeLimit < 0) {
+      throw new IllegalArgumentException("Time limit cannot be negative");
+    } else if (tableEntries < 1 || tableEntries > 1 << 29) {
+      throw new IllegalArgumentException("Table entries must be between 1 and 2^29");
+    }
+    this.depth = depth;
+    this.evaluator = evaluator;
+    this.timeLimit = timeLimit;
+    this.tableEntries = tableEntries;
+  }
+
+  /**
+   * Constructs an AlphaBetaStrategy.
+   * @param depth The number of moves to look ahead, counting the player's own move.
+   * @param evaluator The Evaluator that scores the positions at the end of the search.
+   * @throws IllegalArgumentException if the depth is less than 1 or the evaluator is null.
+   */
+  public AlphaBetaStrategy(int depth, Evaluator evaluator) {
+    this(depth, evaluator, 0, DEFAULT_TABLE_ENTRIES);
+  }
+
+  /**
+   * Constructs an AlphaBetaStrategy that deepens its search one move at a time until the time
+   * limit runs out or the given depth is reached. A search one move deep is always finished,
+   * so a move is found even if the time limit is very short.
+   * @param depth The most moves to look ahead, counting the player's own move.
+   * @param evaluator The Evaluator that scores the positions at the end of the search.
+   * @param timeLimit The time in milliseconds each move may take.
+   * @throws IllegalArgumentException if the depth is less than 1, the evaluator is null or the
+   *                                  time limit is not positive.
+   */
+  public AlphaBetaStrategy(int depth, Evaluator evaluator, long timeLimit) {
+    this(depth, evaluator, positive(timeLimit), DEFAULT_TABLE_ENTRIES);
+  }
+
+  /**
+   * Constructs an AlphaBetaStrategy that deepens its search one move at a time until the time
+   * limit runs out or the game is searched to its end.
+   * @param evaluator The Evaluator that scores the positions at the end of the search.
+   * @param timeLimit The time in milliseconds each move may take.
+   * @throws IllegalArgumentException if the evaluator is null or the time limit is not
+   *                                  positive.
+   */
+  public AlphaBetaStrategy(Evaluator evaluator, long timeLimit) {
+    this(Integer.MAX_VALUE, evaluator, timeLimit);
+  }
+
+  /**
+   * Constructs an AlphaBetaStrategy that scores positions with a PositionalEvaluator.
+   * @param depth The number of moves to look ahead, counting the player's own move.
+   * @throws IllegalArgumentException if the depth is less than 1.
+   */
+  public AlphaBetaStrategy(int depth) {
+    this(depth, new PositionalEvaluator());
+  }
+
+  /**
+   * Default constructor for AlphaBetaStrategy, looking 4 moves ahead and scoring positions
+   * with a PositionalEvaluator.
+   */
+  public AlphaBetaStrategy() {
+    this(4);
+  }
+
+  @Override
+  public NoDiscHexagon chooseTile(Reversi model, Player player) {
+    long deadline = AlphaBetaSearch.deadline(this.timeLimit);
+    BitboardReversi board = new BitboardReversi(model);
+    if (this.table == null) {
+      this.table = new TranspositionTable(this.tableEntries);
+    }
+    this.table.newSearch();
+    int cell = new AlphaBetaSearch(board, this.evaluator, this.table, this.depth, deadline)
+            .bestMove(player);
+    return AlphaBetaSearch.tile(model, cell);
+  }
+
+  // returns the time limit, which must be positive
+  private static long positive(long timeLimit) {
+    if (timeLimit <= 0) {
+      throw new IllegalArgumentException("Time limit must be positive");
+    }
+    return timeLimit;
+  }
+}
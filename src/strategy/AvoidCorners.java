@@ -1,6 +1,7 @@
 package strategy;
 
 import model.AbstractHexagon;
+import model.EmptyHexagon;
 import model.FilledHexagon;
 import model.NoDiscHexagon;
 import model.Player;
@@ -41,6 +42,11 @@ public class AvoidCorners implements ReversiStrategy {
   // the coordinates are given
   private boolean neighbors(NoDiscHexagon hex, Reversi model, int diag, int row) {
     AbstractHexagon h = model.getHex(diag, row);
+    // off-board coordinates are the shared EmptyHexagon, which is also the neighbor of every
+    // edge tile, so they must not count as a corner
+    if (h instanceof EmptyHexagon) {
+      return false;
+    }
     return (hex.getLeft().equals(h) || hex.getTopLeft().equals(h)
             || hex.getBottomLeft().equals(h) || hex.getRight().equals(h)
             || hex.getTopRight().equals(h) || hex.getBottomRight().equals(h));
@@ -19,9 +19,9 @@ public class CaptureMaxTiles implements ReversiStrategy {
   /**
    * Returns the empty tile that this player can move to that allows this
    * player to capture the most tiles as possible. This strategy works
-   * by going through all the empty tiles in the grid and looking at all the
-   * tiles it can capture in all directions. It will then find the tile that
-   * is able to return the maximum number of tiles captured.
+   * by going through the tiles the model reports as legal moves for this player
+   * and looking at all the tiles each can capture in all directions. It will then
+   * find the tile that is able to return the maximum number of tiles captured.
    * @param model The ReversiModel which determines which tiles will be
    *              captured.
    * @param player The ReversiPlayer that is currently playing.
@@ -33,18 +33,8 @@ public class CaptureMaxTiles implements ReversiStrategy {
 
     HashMap<NoDiscHexagon, Integer> possibleHexagons = new HashMap<>();
 
-    for (NoDiscHexagon hex : model.getGrid()) {
-      int size = 0;
-      if (!(hex instanceof FilledHexagon)) {
-        List<List<FilledHexagon>> list =
-                hex.checkAll((hex.getFilledHexagons(player.getColor())),
-                        hex, player.getColor());
-
-        for (List<FilledHexagon> l : list) {
-          size = size + l.size();
-        }
-        possibleHexagons.put(hex, size);
-      }
+    for (NoDiscHexagon hex : model.legalMoves(player)) {
+      possibleHexagons.put(hex, hex.countFlips(player.getColor()));
     }
     return this.getBestHexagon(possibleHexagons);
   }
@@ -64,14 +54,10 @@ public class CaptureMaxTiles implements ReversiStrategy {
 
     int size = 0;
     for (NoDiscHexagon hex: loh) {
-      //the player cannot make a move in a tile with a disc already in it
-      if (!(hex instanceof  FilledHexagon)) {
-        List<List<FilledHexagon>> list =
-                hex.checkAll((hex.getFilledHexagons(player.getColor())),
-                        hex, player.getColor());
-        for (List<FilledHexagon> l: list) {
-          size = size + l.size();
-        }
+      //the player cannot make a move in a tile with a disc already in it, and a strategy
+      //that found no move gives null
+      if (hex != null && !(hex instanceof  FilledHexagon)) {
+        size = size + hex.countFlips(player.getColor());
         possibleHexagons.put(hex, size);
       }
     }
@@ -84,9 +70,13 @@ public class CaptureMaxTiles implements ReversiStrategy {
    * finds which hexagon has the largest number of tiles captured.
    * @param map A hashmap that contains a NoDiscHexagon and the largest amount
    *            of tiles that that tile will capture in one move.
-   * @return A NoDiscHexagon that will capture the largest amount of tiles.
+   * @return A NoDiscHexagon that will capture the largest amount of tiles, or null if there
+   *         are no tiles to choose from.
    */
   private NoDiscHexagon getBestHexagon(HashMap<NoDiscHexagon, Integer> map) {
+    if (map.isEmpty()) {
+      return null;
+    }
 
     int max = 0;
     NoDiscHexagon bestHex = null;
@@ -0,0 +1,16 @@
+package strategy;
+
+import model.Player;
+import model.ReadOnlyReversi;
+
+/**
+ * An Evaluator that scores a position by how many more discs the player has on the board than
+ * their opponent.
+ */
+public class DiscCountEvaluator implements Evaluator {
+  @Override
+  public int evaluate(ReadOnlyReversi model, Player player) {
+    Player other = player == Player.A ? Player.B : Player.A;
+    return model.getScore(player) - model.getScore(other);
+  }
+}
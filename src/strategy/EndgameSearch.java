@@ -0,0 +1,317 @@
+package strategy;
+
+import model.BitboardReversi;
+import model.HexGeometry;
+import model.MoveUndo;
+import model.Player;
+
+/**
+ * One exact search of a copy of a board with few empty tiles left, played out to the end of the
+ * game. Scores are the final difference in discs for the player to move. Only the empty tiles
+ * of the starting position that can still be played are ever looked at, so the cost of a
+ * position does not grow with the size of the board, and nothing is allocated but the undo
+ * records.
+ */
+final class EndgameSearch {
+
+  // above this many empty tiles moves are ordered fastest first, which costs a look at every
+  // answer of the opponent but pays for itself in the larger trees
+  private static final int FASTEST_FIRST_EMPTIES = 6;
+
+  // how many nodes are searched between looks at whether the thread was interrupted
+  private static final int CLOCK_INTERVAL = 1024;
+
+  private final BitboardReversi board;
+  private final HexGeometry geometry;
+  private final TranspositionTable table;
+
+  // the tiles that were empty and playable when the search started, which are the only tiles
+  // that change
+  private final int[] empties;
+
+  // the legal moves at each ply and their ordering keys, lowest first. A pass plays no disc,
+  // so there can be up to two plies for every empty tile
+  private final int[][] moves;
+  private final int[][] keys;
+
+  // the region of empty tiles each cell belongs to, and the number of empty tiles in each
+  // region, refilled at every position that orders by parity
+  private final int[] region;
+  private final int[] regionSize;
+
+  // the cells waiting to be visited while a region is filled
+  private final int[] stack;
+
+  // whether each cell is one of the empties
+  private final boolean[] live;
+
+  // nodes left to search before the thread is checked again
+  private int untilClock = CLOCK_INTERVAL;
+
+  /**
+   * Prepares a search of the given board.
+   * @param board The board to search, which the search plays on and always restores.
+   * @param table The table to keep results in, scored in discs rather than in WIN.
+   * @param empties The empty tiles of the board that can still be played, as found by playable.
+   */
+  EndgameSearch(BitboardReversi board, TranspositionTable table, int[] empties) {
+    this.board = board;
+    this.geometry = board.getGeometry();
+    this.table = table;
+    this.empties = empties;
+    int count = empties.length;
+    this.moves = new int[2 * count + 2][count];
+    this.keys = new int[2 * count + 2][count];
+    this.region = new int[this.geometry.cellCount()];
+    this.regionSize = new int[count + 1];
+    this.stack = new int[count];
+    this.live = new boolean[this.geometry.cellCount()];
+    for (int cell : empties) {
+      this.live[cell] = true;
+    }
+  }
+
+  /**
+   * Returns the empty tiles of the given board that may still be played some time in the game.
+   * A disc placed in a tile must capture along a line that runs through the next two tiles,
+   * so a tile can only be played once both are filled. Tiles are marked fillable from the
+   * filled tiles outward until no more can be, and the tiles left are never played; on this
+   * board, whose center starts empty, every second tile along every line through the center
+   * is one of them.
+   */
+  static int[] playable(BitboardReversi board) {
+    HexGeometry geometry = board.getGeometry();
+    boolean[] fillable = new boolean[geometry.cellCount()];
+    for (int cell = 0; cell < fillable.length; cell++) {
+      fillable[cell] = board.ownerAt(cell) != null;
+    }
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (int cell = 0; cell < fillable.length; cell++) {
+        for (int dir = 0; dir < HexGeometry.DIRECTIONS && !fillable[cell]; dir++) {
+          int next = geometry.neighbor(cell, dir);
+          if (next >= 0 && fillable[next]) {
+            int beyond = geometry.neighbor(next, dir);
+            if (beyond >= 0 && fillable[beyond]) {
+              fillable[cell] = true;
+              changed = true;
+            }
+          }
+        }
+      }
+    }
+    int count = 0;
+    int[] empty = new int[fillable.length];
+    for (int cell = 0; cell < fillable.length; cell++) {
+      if (fillable[cell] && board.ownerAt(cell) == null) {
+        empty[count++] = cell;
+      }
+    }
+    int[] result = new int[count];
+    System.arraycopy(empty, 0, result, 0, count);
+    return result;
+  }
+
+  /**
+   * Returns the cell of the best move for the given player, or -1 if they cannot move. With
+   * exact set the move gives the largest final difference in discs; otherwise it is only
+   * sure to win if any move wins, or else to draw if any move draws, which is much quicker.
+   * A search whose thread is interrupted gives up and returns the best move found so far.
+   */
+  int bestMove(Player who, boolean exact) {
+    int count = this.order(who, 0, this.empties.length,
+            TranspositionTable.move(this.table.probe(this.board.positionHash(who))));
+    if (count == 0) {
+      return -1;
+    }
+    // a window of -1 to 1 only tells wins, draws and losses apart
+    int alpha = exact ? -AlphaBetaSearch.INFINITY : -1;
+    int beta = exact ? AlphaBetaSearch.INFINITY : 1;
+    int best = -AlphaBetaSearch.INFINITY;
+    int bestCell = this.moves[0][0];
+    for (int k = 0; k < count; k++) {
+      int cell = this.moves[0][k];
+      MoveUndo undo = this.board.makeSearchMove(who, cell);
+      int score;
+      try {
+        score = -this.search(AlphaBetaSearch.next(who), this.empties.length - 1, 1, -beta,
+                -alpha, false);
+      } catch (AlphaBetaSearch.OutOfTime e) {
+        break;
+      } finally {
+        this.board.unmakeMove(undo);
+      }
+      if (score > best) {
+        best = score;
+        bestCell = cell;
+        alpha = Math.max(alpha, score);
+        if (score >= beta) {
+          break;
+        }
+      }
+    }
+    return bestCell;
+  }
+
+  // the final difference in discs for the given player to move, if it lies between alpha and
+  // beta, or otherwise a bound on it beyond that side of the window
+  private int search(Player who, int empty, int ply, int alpha, int beta, boolean passed) {
+    this.checkClock();
+    long hash = this.board.positionHash(who);
+    long entry = this.table.probe(hash);
+    if (entry != TranspositionTable.MISS) {
+      int score = TranspositionTable.score(entry);
+      int bound = TranspositionTable.bound(entry);
+      if (bound == TranspositionTable.EXACT
+              || (bound == TranspositionTable.LOWER && score >= beta)
+              || (bound == TranspositionTable.UPPER && score <= alpha)) {
+        return score;
+      }
+    }
+    int count = this.order(who, ply, empty, TranspositionTable.move(entry));
+    if (count == 0) {
+      Player other = AlphaBetaSearch.next(who);
+      if (passed) {
+        return this.board.count(who) - this.board.count(other);
+      }
+      return -this.search(other, empty, ply + 1, -beta, -alpha, true);
+    }
+    int start = alpha;
+    int best = -AlphaBetaSearch.INFINITY;
+    int bestCell = -1;
+    for (int k = 0; k < count; k++) {
+      int cell = this.moves[ply][k];
+      MoveUndo undo = this.board.makeSearchMove(who, cell);
+      int score;
+      try {
+        score = -this.search(AlphaBetaSearch.next(who), empty - 1, ply + 1, -beta, -alpha,
+                false);
+      } finally {
+        this.board.unmakeMove(undo);
+      }
+      if (score > best) {
+        best = score;
+        bestCell = cell;
+        alpha = Math.max(alpha, score);
+        if (score >= beta) {
+          break;
+        }
+      }
+    }
+    int bound = TranspositionTable.EXACT;
+    if (best <= start) {
+      bound = TranspositionTable.UPPER;
+    } else if (best >= beta) {
+      bound = TranspositionTable.LOWER;
+    }
+    // the number of empty tiles stands in for the depth, since every search here is to the end
+    this.table.store(hash, empty, best, bound, bestCell);
+    return best;
+  }
+
+  // gives up the search if its thread was interrupted, like an AlphaBetaSearch that is stopped
+  private void checkClock() {
+    if (--this.untilClock > 0) {
+      return;
+    }
+    this.untilClock = CLOCK_INTERVAL;
+    if (Thread.currentThread().isInterrupted()) {
+      throw AlphaBetaSearch.OutOfTime.INSTANCE;
+    }
+  }
+
+  // fills the move list of the given ply with the legal moves of the given player and returns
+  // how many there are. The given move comes first. The others are ordered by parity, moves in
+  // a region with an odd number of empty tiles first, since the player who moves first in such
+  // a region usually also gets its last tile, and with enough empty tiles left by how few moves
+  // they leave the opponent
+  private int order(Player who, int ply, int empty, int first) {
+    int[] list = this.moves[ply];
+    int[] key = this.keys[ply];
+    int count = 0;
+    for (int cell : this.empties) {
+      if (this.board.isLegal(who, cell)) {
+        list[count++] = cell;
+      }
+    }
+    if (count < 2) {
+      return count;
+    }
+    this.fillRegions();
+    boolean fastest = empty > FASTEST_FIRST_EMPTIES;
+    Player other = AlphaBetaSearch.next(who);
+    for (int k = 0; k < count; k++) {
+      int cell = list[k];
+      int value = (this.regionSize[this.region[cell]] & 1) == 0 ? 1 : 0;
+      if (fastest) {
+        MoveUndo undo = this.board.makeSearchMove(who, cell);
+        value += 2 * this.mobility(other);
+        this.board.unmakeMove(undo);
+      }
+      // insertion sort, keeping moves with equal keys in grid order
+      int j = k;
+      while (j > 0 && key[j - 1] > value) {
+        list[j] = list[j - 1];
+        key[j] = key[j - 1];
+        j--;
+      }
+      list[j] = cell;
+      key[j] = value;
+    }
+    int k = 0;
+    while (k < count && list[k] != first) {
+      k++;
+    }
+    if (k < count) {
+      for (; k > 0; k--) {
+        list[k] = list[k - 1];
+      }
+      list[0] = first;
+    }
+    return count;
+  }
+
+  // the number of legal moves of the given player
+  private int mobility(Player who) {
+    int count = 0;
+    for (int cell : this.empties) {
+      if (this.board.isLegal(who, cell)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  // splits the empty tiles into regions of tiles joined through empty neighbors that can be
+  // played. Regions are numbered from 1, and region 0 means a tile is not empty
+  private void fillRegions() {
+    for (int cell : this.empties) {
+      this.region[cell] = 0;
+    }
+    int regions = 0;
+    for (int cell : this.empties) {
+      if (this.region[cell] != 0 || this.board.ownerAt(cell) != null) {
+        continue;
+      }
+      regions++;
+      int size = 0;
+      int top = 0;
+      this.stack[top++] = cell;
+      this.region[cell] = regions;
+      while (top > 0) {
+        int next = this.stack[--top];
+        size++;
+        for (int dir = 0; dir < HexGeometry.DIRECTIONS; dir++) {
+          int neighbor = this.geometry.neighbor(next, dir);
+          if (neighbor >= 0 && this.region[neighbor] == 0
+                  && this.board.ownerAt(neighbor) == null && this.live[neighbor]) {
+            this.region[neighbor] = regions;
+            this.stack[top++] = neighbor;
+          }
+        }
+      }
+      this.regionSize[regions] = size;
+    }
+  }
+}
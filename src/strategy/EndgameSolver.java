@@ -0,0 +1,114 @@
+package strategy;
+
+import model.BitboardReversi;
+import model.HexGeometry;
+import model.NoDiscHexagon;
+import model.Player;
+import model.Reversi;
+
+/**
+ * An implementation of a ReversiStrategy that plays the end of the game perfectly.
+ * Strategy: once no more than a given number of empty tiles can still be played, every line of
+ * play is searched to the end of the game, so a won position is never thrown away. Tiles that
+ * no move can ever reach are not counted. By default the search only tells wins, draws and
+ * losses apart, which is much quicker, and plays some winning move if there is one, or else some
+ * drawing move; it can also find the move with the largest final difference in discs. Moves
+ * are searched in regions with an odd number of empty tiles first, and while many tiles are
+ * empty, by how few moves they leave the opponent. Before that point the move is left to
+ * another strategy, and the tiles that cannot be played are remembered from the last time the
+ * solver looked, so that the moves before the endgame cost no more than the other strategy's.
+ */
+public class EndgameSolver implements ReversiStrategy {
+
+  /**
+   * The number of empty tiles at which the solver takes over by default, which it solves in
+   * well under a second.
+   */
+  public static final int DEFAULT_EMPTIES = 14;
+
+  // the number of entries in the transposition table of each solver, 4 MB once it is made
+  private static final int TABLE_ENTRIES = 1 << 18;
+
+  //chooses the moves while more tiles are empty than the solver takes on
+  private final ReversiStrategy fallback;
+
+  //the most empty tiles the solver takes on
+  private final int empties;
+
+  //whether to find the largest win rather than any win
+  private final boolean exact;
+
+  //the results of earlier searches, kept from one move to the next, or null until the solver
+  //first takes over, so a player that never reaches the endgame does not pay for it
+  private TranspositionTable table;
+
+  //the number of empty tiles found to be out of play the last time the solver looked at the
+  //board, or -1 if it has not looked at this game yet. A tile out of play stays out of play
+  private int unplayable = -1;
+
+  //the number of tiles and of discs on the board the solver last looked at, which tell a new
+  //game from a later move of the same one
+  private int lastCells;
+  private int lastDiscs;
+
+  /**
+   * Constructs an EndgameSolver.
+   * @param fallback The ReversiStrategy that chooses the moves before the solver takes over.
+   * @param empties The most empty tiles the solver takes on.
+   * @param exact True to play for the largest final difference in discs, false to only play
+   *              for a win, or failing that a draw.
+   * @throws IllegalArgumentException if the fallback is null or the number of empty tiles is
+   *                                  less than 1 or more than 64.
+   */
+  public EndgameSolver(ReversiStrategy fallback, int empties, boolean exact) {
+    if (fallback == null) {
+      throw new IllegalArgumentException("Fallback strategy cannot be null");
+    } else if (empties < 1 || empties > 64) {
+      throw new IllegalArgumentException("Number of empty tiles must be between 1 and 64");
+    }
+    this.fallback = fallback;
+    this.empties = empties;
+    this.exact = exact;
+  }
+
+  /**
+   * Constructs an EndgameSolver that takes over at DEFAULT_EMPTIES empty tiles and plays for a
+   * win.
+   * @param fallback The ReversiStrategy that chooses the moves before the solver takes over.
+   * @throws IllegalArgumentException if the fallback is null.
+   */
+  public EndgameSolver(ReversiStrategy fallback) {
+    this(fallback, DEFAULT_EMPTIES, false);
+  }
+
+  @Override
+  public NoDiscHexagon chooseTile(Reversi model, Player player) {
+    int cells = HexGeometry.of(model.getBoardSize()).cellCount();
+    int discs = model.getScore(Player.A) + model.getScore(Player.B);
+    if (cells != this.lastCells || discs < this.lastDiscs) {
+      this.unplayable = -1;
+    }
+    this.lastCells = cells;
+    this.lastDiscs = discs;
+    if (this.unplayable >= 0 && cells - discs - this.unplayable > this.empties) {
+      return this.fallback.chooseTile(model, player);
+    }
+    BitboardReversi board = new BitboardReversi(model);
+    int[] empty = EndgameSearch.playable(board);
+    this.unplayable = cells - discs - empty.length;
+    if (empty.length > this.empties) {
+      return this.fallback.chooseTile(model, player);
+    }
+    if (this.table == null) {
+      this.table = new TranspositionTable(TABLE_ENTRIES);
+    }
+    this.table.newSearch();
+    int cell = new EndgameSearch(board, this.table, empty).bestMove(player, this.exact);
+    return AlphaBetaSearch.tile(model, cell);
+  }
+
+  @Override
+  public void shutdown() {
+    this.fallback.shutdown();
+  }
+}
@@ -0,0 +1,22 @@
+package strategy;
+
+import model.Player;
+import model.ReadOnlyReversi;
+
+/**
+ * A function that scores a position of a game of Reversi for one of the players, used by the
+ * search strategies to judge the positions at the end of the lines they look at.
+ */
+public interface Evaluator {
+
+  /**
+   * Returns how good the given position is for the given player. Higher scores are better for
+   * the player, and the score for the other player should be the negation of this score. Scores
+   * must lie strictly between -AlphaBetaStrategy.WIN and AlphaBetaStrategy.WIN so that they are
+   * never mistaken for a finished game.
+   * @param model The game whose position is scored.
+   * @param player The Player the score is for.
+   * @return The score of the position for the player.
+   */
+  int evaluate(ReadOnlyReversi model, Player player);
+}
@@ -3,7 +3,6 @@ package strategy;
 import java.util.ArrayList;
 import java.util.List;
 
-import model.FilledHexagon;
 import model.NoDiscHexagon;
 import model.Player;
 import model.Reversi;
@@ -61,16 +60,7 @@ public class ExtraCredit {
    *          the player has on the game board.
    */
   private int calculateScore(NoDiscHexagon hex, Player player) {
-    int size = 0;
-    List<List<FilledHexagon>> list =
-            hex.checkAll((hex.getFilledHexagons(player.getColor())),
-                    hex, player.getColor());
-
-    for (List<FilledHexagon> l : list) {
-      size = size + l.size();
-    }
-
-    return size;
+    return hex.countFlips(player.getColor());
   }
 }
 
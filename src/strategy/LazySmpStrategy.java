@@ -0,0 +1,159 @@
+package strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import model.BitboardReversi;
+import model.NoDiscHexagon;
+import model.Player;
+import model.Reversi;
+
+/**
+ * An implementation of a ReversiStrategy that runs the search of AlphaBetaStrategy on several
+ * threads in the Lazy SMP style. Strategy: the calling thread runs the usual search, deepening
+ * one move at a time from one move deep whether or not there is a time limit, so that each
+ * depth finds the best moves of the one before in the table. Helper threads run the same
+ * search on their own copies of the board at the same time, every other helper starting one
+ * move deeper. The threads share nothing but a TranspositionTable,
+ * so the helpers speed up the main search only by filling the table with results it would
+ * otherwise have to find itself. The move played is always the one found by the main search,
+ * and the helpers are stopped as soon as it finishes. The Evaluator is called from all of the
+ * threads at once, so it must not keep any state of its own.
+ */
+public class LazySmpStrategy implements ReversiStrategy {
+
+  /**
+   * The number of entries in the transposition table unless another is given, which take 32 MB
+   * once the table is made.
+   */
+  public static final int DEFAULT_TABLE_ENTRIES = 1 << 21;
+
+  //how many moves ahead the search looks, or the deepest it may look with a time limit
+  private final int depth;
+
+  //scores the positions at the end of the search
+  private final Evaluator evaluator;
+
+  //the time in milliseconds each move may take, or 0 to always search to the full depth
+  private final long timeLimit;
+
+  //the number of helper threads, one less than the number of threads searching
+  private final int helpers;
+
+  //runs the helper searches, or null if there are none
+  private final ForkJoinPool pool;
+
+  //the number of entries in the transposition table
+  private final int tableEntries;
+
+  //the results of earlier searches, shared by every thread, or null until the first move
+  private TranspositionTable table;
+
+  /**
+   * Constructs a LazySmpStrategy with a transposition table of the given size. With a time
+   * limit the search deepens one move at a time until the time runs out or the given depth is
+   * reached, like AlphaBetaStrategy.
+   * @param depth The most moves to look ahead, counting the player's own move.
+   * @param evaluator The Evaluator that scores the positions at the end of the search.
+   * @param timeLimit The time in milliseconds each move may take, or 0 for no limit.
+   * @param threads The number of threads to search with, counting the calling thread.
+   * @param tableEntries The number of entries in the transposition table, each of which takes
+   *                     16 bytes, rounded up to a power of two.
+   * @throws IllegalArgumentException if the depth or number of threads is less than 1, the
+   *                                  evaluator is null, the time limit is negative or the number
+   *                                  of entries is not between 1 and 2^29.
+   */
+  public LazySmpStrategy(int depth, Evaluator evaluator, long timeLimit, int threads,
+                         int tableEntries) {
+    if (depth < 1) {
+      throw new IllegalArgumentException("Depth must be at least 1");
+    } else if (evaluator == null) {
+      throw new IllegalArgumentException("Evaluator cannot be null");
+    } else if (timeLimit < 0) {
+      throw new IllegalArgumentException("Time limit cannot be negative");
+    } else if (threads < 1) {
+      throw new IllegalArgumentException("There must be at least 1 thread");
+    } else if (tableEntries < 1 || tableEntries > 1 << 29) {
+      throw new IllegalArgumentException("Table entries must be between 1 and 2^29");
+    }
+    this.depth = depth;
+    this.evaluator = evaluator;
+    this.timeLimit = timeLimit;
+    this.tableEntries = tableEntries;
+    this.helpers = threads - 1;
+    this.pool = this.helpers > 0 ? new ForkJoinPool(this.helpers) : null;
+  }
+
+  /**
+   * Constructs a LazySmpStrategy. With a time limit the search deepens one move at a time until
+   * the time runs out or the given depth is reached, like AlphaBetaStrategy.
+   * @param depth The most moves to look ahead, counting the player's own move.
+   * @param evaluator The Evaluator that scores the positions at the end of the search.
+   * @param timeLimit The time in milliseconds each move may take, or 0 for no limit.
+   * @param threads The number of threads to search with, counting the calling thread.
+   * @throws IllegalArgumentException if the depth or number of threads is less than 1, the
+   *                                  evaluator is null or the time limit is negative.
+   */
+  public LazySmpStrategy(int depth, Evaluator evaluator, long timeLimit, int threads) {
+    this(depth, evaluator, timeLimit, threads, DEFAULT_TABLE_ENTRIES);
+  }
+
+  @Override
+  public NoDiscHexagon chooseTile(Reversi model, Player player) {
+    long deadline = AlphaBetaSearch.deadline(this.timeLimit);
+    BitboardReversi board = new BitboardReversi(model);
+    if (this.table == null) {
+      this.table = new TranspositionTable(this.tableEntries);
+    }
+    this.table.newSearch();
+    AtomicBoolean stop = new AtomicBoolean();
+    List<ForkJoinTask<?>> running = new ArrayList<>();
+    for (int k = 0; k < this.helpers; k++) {
+      BitboardReversi copy = new BitboardReversi(board);
+      // every other helper starts one move deeper, so the helpers are ahead of the main search
+      int from = 1 + k % 2;
+      running.add(this.pool.submit(() -> this.help(copy, player, from, deadline, stop)));
+    }
+    int cell = -1;
+    try {
+      AlphaBetaSearch search = new AlphaBetaSearch(board, this.evaluator, this.table,
+              this.depth, deadline);
+      int count = search.orderRoot(player);
+      if (count > 0) {
+        cell = search.deepen(player, count, 1, search.rootMove(0));
+      }
+    } finally {
+      stop.set(true);
+      for (ForkJoinTask<?> task : running) {
+        task.join();
+      }
+    }
+    return AlphaBetaSearch.tile(model, cell);
+  }
+
+  /**
+   * Stops the helper threads of the strategy. The strategy cannot choose a tile after, unless
+   * it searches on the calling thread alone.
+   */
+  @Override
+  public void shutdown() {
+    if (this.pool != null) {
+      this.pool.shutdownNow();
+    }
+  }
+
+  // runs one helper search until it reaches the deepest depth or is stopped
+  private void help(BitboardReversi board, Player player, int from, long deadline,
+                    AtomicBoolean stop) {
+    AlphaBetaSearch search = new AlphaBetaSearch(board, this.evaluator, this.table, this.depth,
+            deadline);
+    search.stopWhen(stop);
+    int count = search.orderRoot(player);
+    if (count > 0) {
+      search.deepen(player, count, Math.min(from, search.getDepth()), -1);
+    }
+  }
+}
@@ -0,0 +1,406 @@
+package strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import model.BitboardReversi;
+import model.HexGeometry;
+import model.NoDiscHexagon;
+import model.Player;
+import model.Reversi;
+
+/**
+ * An implementation of a ReversiStrategy that plays many quick games from the current position
+ * instead of judging positions with an Evaluator, which suits large boards where too many moves
+ * are possible for an alpha-beta search to look far ahead. Strategy: Monte Carlo tree search
+ * with UCT. Each playout walks down a tree of the positions played so far, picking the moves
+ * that have won most often while still trying the others now and then, adds one new position
+ * to the tree and plays the rest of the game out with random moves, except that a corner is
+ * always taken when one can be. The result is counted in every position on the way, and the
+ * move played most often from the current position is chosen. Playouts run on a bitboard that
+ * is reset for each one, so they allocate nothing, and a random move is found by trying random
+ * empty tiles until one is legal rather than by listing every legal move. With several threads
+ * the playouts either share one tree, which every thread walks and grows at once, or each
+ * thread grows a tree of its own and the trees' counts are added up at the end. Interrupting
+ * the thread that chooses a tile stops every thread's playouts, and the move is chosen from the
+ * playouts made so far. The helper threads of a strategy run until it is shut down.
+ */
+public class MCTSStrategy implements ReversiStrategy {
+
+  /**
+   * How the playouts of an MCTSStrategy are spread over several threads.
+   */
+  public enum Parallelism {
+    /**
+     * Every thread grows one shared tree. A position being played out from counts as a loss
+     * until its result is in, so that the other threads try other moves meanwhile.
+     */
+    TREE,
+
+    /**
+     * Every thread grows a tree of its own, and the trees are combined at the end.
+     */
+    ROOT
+  }
+
+  // how strongly UCT favors moves that have been tried less, the usual square root of 2
+  private static final double EXPLORATION = Math.sqrt(2);
+
+  // the move of a node reached by passing
+  private static final int PASS = -1;
+
+  //the most playouts for each move, or 0 for no limit
+  private final long playouts;
+
+  //the time in milliseconds each move may take, or 0 for no limit
+  private final long timeLimit;
+
+  //how the playouts are spread over the threads
+  private final Parallelism parallelism;
+
+  //the number of helper threads, one less than the number of threads playing out
+  private final int helpers;
+
+  //runs the helpers, or null if there are none
+  private final ForkJoinPool pool;
+
+  //hands each move's threads their own random numbers
+  private final SplittableRandom random = new SplittableRandom();
+
+  /**
+   * Constructs an MCTSStrategy. Each move stops at whichever of the limits is reached first.
+   * @param playouts The most playouts for each move, or 0 for no limit.
+   * @param timeLimit The time in milliseconds each move may take, or 0 for no limit.
+   * @param threads The number of threads to play out on, counting the calling thread.
+   * @param parallelism How the playouts are spread over the threads.
+   * @throws IllegalArgumentException if either limit is negative or both are 0, the number of
+   *                                  threads is less than 1 or the parallelism is null.
+   */
+  public MCTSStrategy(long playouts, long timeLimit, int threads, Parallelism parallelism) {
+    if (playouts < 0 || timeLimit < 0) {
+      throw new IllegalArgumentException("Limits cannot be negative");
+    } else if (playouts == 0 && timeLimit == 0) {
+      throw new IllegalArgumentException("There must be a playout or time limit");
+    } else if (threads < 1) {
+      throw new IllegalArgumentException("There must be at least 1 thread");
+    } else if (parallelism == null) {
+      throw new IllegalArgumentException("Parallelism cannot be null");
+    }
+    this.playouts = playouts;
+    this.timeLimit = timeLimit;
+    this.parallelism = parallelism;
+    this.helpers = threads - 1;
+    this.pool = this.helpers > 0 ? new ForkJoinPool(this.helpers) : null;
+  }
+
+  /**
+   * Constructs an MCTSStrategy that plays the given number of playouts for each move on the
+   * calling thread.
+   * @param playouts The number of playouts for each move.
+   * @throws IllegalArgumentException if the number of playouts is less than 1.
+   */
+  public MCTSStrategy(long playouts) {
+    this(playouts, 0, 1, Parallelism.TREE);
+  }
+
+  /**
+   * Default constructor for MCTSStrategy, playing 10000 playouts for each move.
+   */
+  public MCTSStrategy() {
+    this(10000);
+  }
+
+  @Override
+  public NoDiscHexagon chooseTile(Reversi model, Player player) {
+    long deadline = AlphaBetaSearch.deadline(this.timeLimit);
+    BitboardReversi root = new BitboardReversi(model);
+    int[] moves = new int[root.getGeometry().cellCount()];
+    int count = root.legalMoves(player, moves);
+    if (count == 0) {
+      return null;
+    } else if (count == 1) {
+      return AlphaBetaSearch.tile(model, moves[0]);
+    }
+
+    // every thread shares the count of playouts, so the limit is on all of them together
+    AtomicLong started = new AtomicLong();
+    AtomicBoolean stop = new AtomicBoolean();
+    int[] live = EndgameSearch.playable(root);
+    Node shared = new Node(null, PASS, player);
+    List<Node> trees = new ArrayList<>();
+    List<ForkJoinTask<?>> running = new ArrayList<>();
+    for (int h = 0; h < this.helpers; h++) {
+      Node tree = this.parallelism == Parallelism.TREE ? shared : new Node(null, PASS, player);
+      trees.add(tree);
+      Worker worker = new Worker(root, tree, this.random.split(), live);
+      running.add(this.pool.submit(() -> worker.run(started, this.playouts, deadline, stop)));
+    }
+    trees.add(shared);
+    try {
+      new Worker(root, shared, this.random.split(), live).run(started, this.playouts, deadline,
+              stop);
+    } finally {
+      stop.set(true);
+      for (ForkJoinTask<?> task : running) {
+        task.join();
+      }
+    }
+    return AlphaBetaSearch.tile(model, this.mostPlayed(trees, moves, count));
+  }
+
+  /**
+   * Stops the helper threads of the strategy. The strategy cannot choose a tile after, unless
+   * it plays out on the calling thread alone.
+   */
+  @Override
+  public void shutdown() {
+    if (this.pool != null) {
+      this.pool.shutdownNow();
+    }
+  }
+
+  // the root move played most often across the given trees. A tree may appear more than once
+  private int mostPlayed(List<Node> trees, int[] moves, int count) {
+    long[] visits = new long[count];
+    List<Node> counted = new ArrayList<>();
+    for (Node tree : trees) {
+      if (counted.contains(tree)) {
+        continue;
+      }
+      counted.add(tree);
+      for (int c = 0; c < tree.childCount; c++) {
+        Node child = tree.children[c];
+        for (int k = 0; k < count; k++) {
+          if (moves[k] == child.move) {
+            visits[k] += child.visits;
+          }
+        }
+      }
+    }
+    int best = 0;
+    for (int k = 1; k < count; k++) {
+      if (visits[k] > visits[best]) {
+        best = k;
+      }
+    }
+    return moves[best];
+  }
+
+  // one position in the tree. The counts are only touched while holding the lock of the root
+  // of the tree
+  private static final class Node {
+    private final Node parent;
+    private final int move;
+    private final Player toMove;
+
+    // the moves not yet added as children, filled the first time the node is played through
+    private int[] untried;
+    private int untriedCount;
+
+    private Node[] children;
+    private int childCount;
+
+    // the number of playouts through this node and how many of them were won by the player
+    // who moved into it, a draw counting as half a win
+    private int visits;
+    private double wins;
+
+    Node(Node parent, int move, Player toMove) {
+      this.parent = parent;
+      this.move = move;
+      this.toMove = toMove;
+    }
+
+    // fills the moves of the position, passing if the player cannot move but the opponent
+    // can, and nothing if the game is over
+    void expandMoves(BitboardReversi board, int[] buffer) {
+      int count = board.legalMoves(this.toMove, buffer);
+      if (count == 0 && board.legalMoves(AlphaBetaSearch.next(this.toMove), buffer) > 0) {
+        buffer[0] = PASS;
+        count = 1;
+      }
+      this.untried = new int[count];
+      System.arraycopy(buffer, 0, this.untried, 0, count);
+      this.untriedCount = count;
+      this.children = new Node[count];
+    }
+
+    // the child with the best UCT value
+    Node select() {
+      double logVisits = Math.log(this.visits);
+      Node best = null;
+      double bestValue = Double.NEGATIVE_INFINITY;
+      for (int c = 0; c < this.childCount; c++) {
+        Node child = this.children[c];
+        double value = child.wins / child.visits
+                + EXPLORATION * Math.sqrt(logVisits / child.visits);
+        if (value > bestValue) {
+          bestValue = value;
+          best = child;
+        }
+      }
+      return best;
+    }
+  }
+
+  // plays out from one tree on its own board until the limits are reached
+  private static final class Worker {
+    private final BitboardReversi root;
+    private final BitboardReversi board;
+    private final Node tree;
+    private final SplittableRandom random;
+
+    // the empty tiles of the root position that can still be played, and the corners among
+    // them
+    private final int[] live;
+    private final int[] corners;
+
+    // the tiles still empty during a rollout, and where each cell is in that list
+    private final int[] open;
+    private final int[] position;
+
+    private final int[] buffer;
+
+    Worker(BitboardReversi root, Node tree, SplittableRandom random, int[] live) {
+      this.root = root;
+      this.board = new BitboardReversi(root);
+      this.tree = tree;
+      this.random = random;
+      this.live = live;
+      HexGeometry geometry = root.getGeometry();
+      int count = 0;
+      int[] found = new int[live.length];
+      for (int cell : live) {
+        if (geometry.corner(cell)) {
+          found[count++] = cell;
+        }
+      }
+      this.corners = new int[count];
+      System.arraycopy(found, 0, this.corners, 0, count);
+      this.open = new int[live.length];
+      this.position = new int[geometry.cellCount()];
+      this.buffer = new int[geometry.cellCount()];
+    }
+
+    // plays out until a limit is reached or the flag is set, setting the flag for the other
+    // workers if this thread is interrupted
+    void run(AtomicLong started, long playouts, long deadline, AtomicBoolean stop) {
+      while (!stop.get() && (playouts == 0 || started.getAndIncrement() < playouts)
+              && (deadline == 0 || System.nanoTime() - deadline < 0)) {
+        if (Thread.currentThread().isInterrupted()) {
+          stop.set(true);
+        } else {
+          this.playout();
+        }
+      }
+    }
+
+    // walks down the tree, adds one node, plays the game out and counts the result
+    private void playout() {
+      this.board.copyFrom(this.root);
+      Node node;
+      synchronized (this.tree) {
+        node = this.tree;
+        node.visits++;
+        while (true) {
+          if (node.untried == null) {
+            node.expandMoves(this.board, this.buffer);
+          }
+          if (node.untriedCount > 0) {
+            int k = this.random.nextInt(node.untriedCount);
+            int move = node.untried[k];
+            node.untried[k] = node.untried[--node.untriedCount];
+            this.play(node.toMove, move);
+            Node child = new Node(node, move, AlphaBetaSearch.next(node.toMove));
+            node.children[node.childCount++] = child;
+            node = child;
+            node.visits++;
+            break;
+          } else if (node.childCount == 0) {
+            break;
+          }
+          node = node.select();
+          this.play(node.parent.toMove, node.move);
+          // the visit counts as a loss until the result is in
+          node.visits++;
+        }
+      }
+      double result = this.rollout(node.toMove);
+      synchronized (this.tree) {
+        // the result is for the player to move in the last node, the opponent of the player
+        // who moved into it
+        for (Node n = node; n != null; n = n.parent) {
+          n.wins += 1 - result;
+          result = 1 - result;
+        }
+      }
+    }
+
+    // plays the given move, which may be a pass
+    private void play(Player who, int move) {
+      if (move != PASS) {
+        this.board.play(who, move);
+      }
+    }
+
+    // plays random moves, always taking a corner when one can be taken, until neither player
+    // can move, and returns 1 if the given player to move wins, 0.5 for a draw and 0 for a loss
+    private double rollout(Player first) {
+      int count = 0;
+      for (int cell : this.live) {
+        if (this.board.ownerAt(cell) == null) {
+          this.position[cell] = count;
+          this.open[count++] = cell;
+        }
+      }
+      Player who = first;
+      int passes = 0;
+      while (passes < 2 && count > 0) {
+        int move = this.pick(who, count);
+        if (move < 0) {
+          passes++;
+        } else {
+          passes = 0;
+          this.board.play(who, move);
+          // the last open tile takes the place of the one just filled
+          int last = this.open[--count];
+          this.open[this.position[move]] = last;
+          this.position[last] = this.position[move];
+        }
+        who = AlphaBetaSearch.next(who);
+      }
+      int diff = this.board.count(first) - this.board.count(AlphaBetaSearch.next(first));
+      return diff > 0 ? 1 : diff < 0 ? 0 : 0.5;
+    }
+
+    // a legal move of the given player among the first count open tiles: a corner if there is
+    // one, or else a random one, or -1 if they cannot move. Rather than finding every legal
+    // move, random tiles are tried until one is legal, each tile at most once
+    private int pick(Player who, int count) {
+      for (int cell : this.corners) {
+        if (this.board.isLegal(who, cell)) {
+          return cell;
+        }
+      }
+      for (int untried = count; untried > 0; untried--) {
+        int k = this.random.nextInt(untried);
+        int cell = this.open[k];
+        if (this.board.isLegal(who, cell)) {
+          return cell;
+        }
+        // move the tile past the ones still to try
+        int other = this.open[untried - 1];
+        this.open[k] = other;
+        this.position[other] = k;
+        this.open[untried - 1] = cell;
+        this.position[cell] = untried - 1;
+      }
+      return -1;
+    }
+  }
+}
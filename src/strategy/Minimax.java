@@ -2,12 +2,13 @@ package strategy;
 
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 
+import model.MoveUndo;
 import model.NoDiscHexagon;
 import model.Player;
 import model.Reversi;
-import model.ReversiModel;
 import model.ReversiModelDeepCopy;
 
 /**
@@ -47,14 +48,23 @@ public class Minimax implements ReversiStrategy {
 
     //find the maximum number of tiles the opponent could capture (using any of the 3 strategies)
     // if the current player makes a move in the 3 possible tiles and stores it in a hashmap
-    HashMap<NoDiscHexagon, Integer> minMoves = new HashMap<>();
-    this.calcScore(strategy1, model, player, minMoves);
-    this.calcScore(strategy2, model, player, minMoves);
-    this.calcScore(strategy3, model, player, minMoves);
+    //creates one copy of the model where each move is made and taken back again to calculate
+    //the score for the next possible move
+    Reversi copy;
+    try {
+      copy = new ReversiModelDeepCopy(model).clone().model;
+    } catch (CloneNotSupportedException e) {
+      throw new RuntimeException(e);
+    }
+    //kept in the order the strategies were asked, so that ties always go to the same move
+    HashMap<NoDiscHexagon, Integer> minMoves = new LinkedHashMap<>();
+    this.calcScore(strategy1, copy, player, minMoves);
+    this.calcScore(strategy2, copy, player, minMoves);
+    this.calcScore(strategy3, copy, player, minMoves);
 
     //use the strategy which leaves the next opponent with the least possible score in
     // their next move
-    int min = 0;
+    int min = Integer.MAX_VALUE;
     NoDiscHexagon bestHex = null;
     for (HashMap.Entry<NoDiscHexagon, Integer> entry : minMoves.entrySet()) {
       if (entry.getValue() < min) {
@@ -68,27 +78,21 @@ public class Minimax implements ReversiStrategy {
   // find the maximum number of tiles the opponent could capture
   // if the current player makes a move in the given tile and stores it in a hashmap that maps
   // the tile the current player would move in with the maximum number of tiles the opponent would
-  // capture in their move
-  private void calcScore(NoDiscHexagon hex, Reversi model, Player player,
+  // capture in their move. The move is made on the given copy of the model and taken back
+  // before returning
+  private void calcScore(NoDiscHexagon hex, Reversi copy, Player player,
                          HashMap<NoDiscHexagon, Integer> map) {
-    if (hex != null) {
+    //the other strategies may suggest a tile the player cannot capture anything from
+    if (hex != null && hex.countFlips(player.getColor()) > 0) {
       Player p = this.next(player);
-      //creates a copy of the model where we can make a move to calculate the score for the next
-      //possible move
-      ReversiModelDeepCopy model2 = new ReversiModelDeepCopy((ReversiModel) model);
-      ReversiModelDeepCopy copyModel = null;
-      try {
-        copyModel = model2.clone();
-      } catch (CloneNotSupportedException e) {
-        throw new RuntimeException(e);
-      }
-      copyModel.model.makeMove(player, hex);
-      NoDiscHexagon strategy1 = openCorners.chooseTile(copyModel.model, p);
-      NoDiscHexagon strategy2 = avoidCorners.chooseTile(copyModel.model, p);
-      NoDiscHexagon strategy3 = captureMax.chooseTile(copyModel.model, p);
+      MoveUndo undo = copy.makeSearchMove(player, hex);
+      NoDiscHexagon strategy1 = openCorners.chooseTile(copy, p);
+      NoDiscHexagon strategy2 = avoidCorners.chooseTile(copy, p);
+      NoDiscHexagon strategy3 = captureMax.chooseTile(copy, p);
       List<NoDiscHexagon> l = Arrays.asList(strategy1, strategy2, strategy3);
 
       HashMap<NoDiscHexagon, Integer> m = captureMax.chooseHelper(l, p);
+      copy.unmakeMove(undo);
 
       int max = 0;
 
@@ -0,0 +1,106 @@
+package strategy;
+
+import java.util.Arrays;
+
+import model.HexGeometry;
+import model.Player;
+
+/**
+ * The order an alpha-beta search tries the moves of a position in, learned from the cut-offs
+ * found so far. The move the TranspositionTable kept for the position comes first, then the
+ * two killer moves of the ply, which are the last moves that cut off the search of another
+ * position at the same depth, and then the rest by their history, which adds up how often and
+ * how deep each cell has cut off a search for each player, with the weight of the cell in the
+ * PositionalEvaluator's table breaking ties and ordering the moves before anything is learned.
+ * Everything is kept in arrays of ints, so ordering allocates nothing, and a MoveOrdering is
+ * used by one search on one thread at a time.
+ */
+final class MoveOrdering {
+
+  // the keys of the table's move and the killer moves, above any history
+  private static final int HASH_KEY = Integer.MAX_VALUE;
+  private static final int KILLER_KEY = 1 << 29;
+
+  // how much more a point of positional weight counts than a point of history
+  private static final int WEIGHT_SCALE = 64;
+
+  // the history at which every count is halved, which keeps the keys below KILLER_KEY and lets
+  // recent cut-offs count more than old ones
+  private static final int HISTORY_LIMIT = 1 << 24;
+
+  private final int cells;
+
+  // the weight of each cell in the PositionalEvaluator's table
+  private final int[] weights;
+
+  // the two killer moves of each ply, the newest first, or -1 where there is none
+  private final int[] killers;
+
+  // the history of each cell, Player A's cells first and then Player B's
+  private final int[] history;
+
+  /**
+   * Makes an ordering with nothing learned yet.
+   * @param geometry The layout of the board searched.
+   * @param plies The number of plies the search may reach.
+   */
+  MoveOrdering(HexGeometry geometry, int plies) {
+    this.cells = geometry.cellCount();
+    this.weights = PositionalEvaluator.weights(geometry.getSize());
+    this.killers = new int[2 * plies];
+    Arrays.fill(this.killers, -1);
+    this.history = new int[2 * this.cells];
+  }
+
+  /**
+   * Sorts the given legal moves of the given player at the given ply, best first, keeping moves
+   * with equal keys in the order given, and leaves the key of each move in keys.
+   * @param hashMove The move kept in the table for the position, or -1 for none.
+   */
+  void order(Player who, int ply, int hashMove, int[] moves, int[] keys, int count) {
+    int base = who == Player.A ? 0 : this.cells;
+    int first = this.killers[2 * ply];
+    int second = this.killers[2 * ply + 1];
+    for (int k = 0; k < count; k++) {
+      int cell = moves[k];
+      int value;
+      if (cell == hashMove) {
+        value = HASH_KEY;
+      } else if (cell == first) {
+        value = KILLER_KEY + 1;
+      } else if (cell == second) {
+        value = KILLER_KEY;
+      } else {
+        value = this.history[base + cell] + WEIGHT_SCALE * this.weights[cell];
+      }
+      // insertion sort, keeping moves with equal keys in the order given
+      int j = k;
+      while (j > 0 && keys[j - 1] < value) {
+        moves[j] = moves[j - 1];
+        keys[j] = keys[j - 1];
+        j--;
+      }
+      moves[j] = cell;
+      keys[j] = value;
+    }
+  }
+
+  /**
+   * Learns that the given move of the given player cut off the search of a position at the
+   * given ply, which had the given depth left to search.
+   */
+  void cutoff(Player who, int ply, int cell, int depth) {
+    if (this.killers[2 * ply] != cell) {
+      this.killers[2 * ply + 1] = this.killers[2 * ply];
+      this.killers[2 * ply] = cell;
+    }
+    int index = (who == Player.A ? 0 : this.cells) + cell;
+    // deeper cut-offs save more work, so they count for more
+    this.history[index] += depth * depth;
+    if (this.history[index] >= HISTORY_LIMIT) {
+      for (int k = 0; k < this.history.length; k++) {
+        this.history[k] /= 2;
+      }
+    }
+  }
+}
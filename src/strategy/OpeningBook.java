@@ -0,0 +1,183 @@
+package strategy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import model.BitboardReversi;
+import model.MoveUndo;
+import model.Player;
+import model.ReadOnlyReversi;
+import model.Zobrist;
+
+/**
+ * A table of the best move in the positions at the start of a game, found ahead of time by
+ * searching every position the first few moves can reach. Positions are looked up by their
+ * position hash, which includes the board size and the player to move, so one book can hold
+ * the openings of several board sizes.
+ *
+ * <p>A book being generated is held in memory. It is saved as a PositionFile whose records hold
+ * the best move of each position and its score from the search, and a saved book is read
+ * straight from the mapped file, so loading it takes no time and no heap however large it is.
+ */
+public final class OpeningBook {
+
+  // the number of entries in the transposition table used while generating, 16 MB
+  private static final int TABLE_ENTRIES = 1 << 20;
+
+  // the cell of the best move and its score in each position generated so far, by position
+  // hash, packed as the move in the high and the score in the low 32 bits
+  private final Map<Long, Long> moves = new HashMap<>();
+
+  // the saved book this book was loaded from, or null if it is being generated
+  private final PositionFile file;
+
+  /**
+   * Constructs an empty OpeningBook, to be filled by generate.
+   */
+  public OpeningBook() {
+    this.file = null;
+  }
+
+  private OpeningBook(PositionFile file) {
+    this.file = file;
+  }
+
+  /**
+   * Maps a book saved by save into memory. Books loaded from the same file by several games or
+   * processes share one copy of it.
+   * @param file the book file.
+   * @return the book, which cannot be generated into.
+   * @throws IOException if the file cannot be read or is not a book file.
+   */
+  public static OpeningBook load(Path file) throws IOException {
+    return new OpeningBook(PositionFile.open(file));
+  }
+
+  /**
+   * Writes the positions generated into this book to the given file, replacing it if it exists.
+   * @param file the book file.
+   * @throws IOException if the file cannot be written.
+   * @throws IllegalStateException if this book was loaded from a file.
+   */
+  public void save(Path file) throws IOException {
+    if (this.file != null) {
+      throw new IllegalStateException("A loaded book is already saved");
+    }
+    long[] hashes = new long[this.moves.size()];
+    int[] cells = new int[hashes.length];
+    int[] scores = new int[hashes.length];
+    int k = 0;
+    for (Map.Entry<Long, Long> entry : this.moves.entrySet()) {
+      hashes[k] = entry.getKey();
+      cells[k] = (int) (entry.getValue() >> 32);
+      scores[k] = (int) (long) entry.getValue();
+      k++;
+    }
+    PositionFile.write(file, hashes, cells, scores);
+  }
+
+  /**
+   * Adds the best move of every position reachable in the given number of moves from the start
+   * of a game on a board of the given size, found by an alpha-beta search to the given depth.
+   * A pass counts as a move.
+   * @param size the size of the board.
+   * @param plies the number of moves from the start of the game to cover.
+   * @param depth the number of moves each position is searched ahead.
+   * @param evaluator the Evaluator that scores the positions at the end of each search.
+   * @return the number of positions added.
+   * @throws IllegalArgumentException if the size is less than 2, the number of moves is
+   *                                  negative, the depth is less than 1 or the evaluator is null.
+   * @throws IllegalStateException if this book was loaded from a file.
+   */
+  public int generate(int size, int plies, int depth, Evaluator evaluator) {
+    if (this.file != null) {
+      throw new IllegalStateException("Cannot generate into a loaded book");
+    } else if (size < 2) {
+      throw new IllegalArgumentException("Size must be greater than 1");
+    } else if (plies < 0) {
+      throw new IllegalArgumentException("Number of moves cannot be negative");
+    } else if (depth < 1) {
+      throw new IllegalArgumentException("Depth must be at least 1");
+    } else if (evaluator == null) {
+      throw new IllegalArgumentException("Evaluator cannot be null");
+    }
+    BitboardReversi board = new BitboardReversi(size);
+    board.startGame();
+    TranspositionTable table = new TranspositionTable(TABLE_ENTRIES);
+    int before = this.moves.size();
+    this.expand(board, Player.A, plies, depth, evaluator, table, new HashSet<>());
+    return this.moves.size() - before;
+  }
+
+  // searches the given position if it was not reached before, then every position one move
+  // further on, until the given number of moves is used up
+  private void expand(BitboardReversi board, Player who, int plies, int depth,
+                      Evaluator evaluator, TranspositionTable table, Set<Long> seen) {
+    if (plies == 0 || !seen.add(board.positionHash(who))) {
+      return;
+    }
+    Player other = AlphaBetaSearch.next(who);
+    int[] list = new int[board.getGeometry().cellCount()];
+    int count = board.legalMoves(who, list);
+    if (count == 0) {
+      if (board.legalMoves(other, list) > 0) {
+        this.expand(board, other, plies - 1, depth, evaluator, table, seen);
+      }
+      return;
+    }
+    // the table is kept from one position to the next, which makes the book much quicker to
+    // build and lets a search reuse what deeper searches of earlier positions found
+    table.newSearch();
+    long hash = board.positionHash(who);
+    AlphaBetaSearch search = new AlphaBetaSearch(board, evaluator, table, depth, 0);
+    int best = search.bestMove(who);
+    // taken from the search itself, since its entry in the table may already have been replaced
+    int score = search.getScore();
+    this.moves.put(hash, ((long) best << 32) | (score & 0xFFFFFFFFL));
+    for (int k = 0; k < count; k++) {
+      MoveUndo undo = board.makeSearchMove(who, list[k]);
+      this.expand(board, other, plies - 1, depth, evaluator, table, seen);
+      board.unmakeMove(undo);
+    }
+  }
+
+  /**
+   * Returns the cell of the best move in the position with the given hash.
+   * @param hash the position hash of the position, with the player to move.
+   * @return the cell index of the move, or -1 if the position is not in the book.
+   */
+  public int lookup(long hash) {
+    if (this.file != null) {
+      long index = this.file.find(hash);
+      return index < 0 ? -1 : this.file.move(index);
+    }
+    Long entry = this.moves.get(hash);
+    return entry == null ? -1 : (int) (entry >> 32);
+  }
+
+  /**
+   * Returns the cell of the best move for the given player in the given game.
+   * @param model the game to look up.
+   * @param player the player to move, whether or not it is their turn in the game.
+   * @return the cell index of the move, or -1 if the position is not in the book.
+   */
+  public int lookup(ReadOnlyReversi model, Player player) {
+    Zobrist keys = Zobrist.of(model.getBoardSize());
+    // the position hash of the game includes whose turn it is, which is swapped for the given
+    // player
+    long hash = model.positionHash() ^ keys.side(model.getPlayer()) ^ keys.side(player);
+    return this.lookup(hash);
+  }
+
+  /**
+   * Returns the number of positions in this book.
+   * @return the number of entries.
+   */
+  public long size() {
+    return this.file != null ? this.file.size() : this.moves.size();
+  }
+}
@@ -0,0 +1,56 @@
+package strategy;
+
+import model.FilledHexagon;
+import model.HexGeometry;
+import model.NoDiscHexagon;
+import model.Player;
+import model.Reversi;
+
+/**
+ * An implementation of a ReversiStrategy that plays from an OpeningBook. Strategy: if the
+ * position is in the book the book's move is played straight away, without searching, and
+ * otherwise the move is left to another strategy, usually a search that would take much longer.
+ */
+public class OpeningBookStrategy implements ReversiStrategy {
+
+  //the best moves of the opening positions
+  private final OpeningBook book;
+
+  //chooses the move in every position that is not in the book
+  private final ReversiStrategy fallback;
+
+  /**
+   * Constructs an OpeningBookStrategy.
+   * @param book The OpeningBook to play from.
+   * @param fallback The ReversiStrategy that chooses the move when the book has none.
+   * @throws IllegalArgumentException if the book or the fallback is null.
+   */
+  public OpeningBookStrategy(OpeningBook book, ReversiStrategy fallback) {
+    if (book == null) {
+      throw new IllegalArgumentException("Opening book cannot be null");
+    } else if (fallback == null) {
+      throw new IllegalArgumentException("Fallback strategy cannot be null");
+    }
+    this.book = book;
+    this.fallback = fallback;
+  }
+
+  @Override
+  public NoDiscHexagon chooseTile(Reversi model, Player player) {
+    int cell = this.book.lookup(model, player);
+    //a position of another board size that happens to share a position hash could name a
+    //tile that is off this board or not a legal move on it
+    if (cell >= 0 && cell < HexGeometry.of(model.getBoardSize()).cellCount()) {
+      NoDiscHexagon tile = AlphaBetaSearch.tile(model, cell);
+      if (!(tile instanceof FilledHexagon) && tile.countFlips(player.getColor()) > 0) {
+        return tile;
+      }
+    }
+    return this.fallback.chooseTile(model, player);
+  }
+
+  @Override
+  public void shutdown() {
+    this.fallback.shutdown();
+  }
+}
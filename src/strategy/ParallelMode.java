@@ -0,0 +1,33 @@
+package strategy;
+
+/**
+ * The ways a search strategy can spread its search over several threads.
+ */
+public enum ParallelMode {
+  /**
+   * Splits the moves of the current position across the threads, as RootSplitStrategy does.
+   */
+  ROOT_SPLIT,
+
+  /**
+   * Runs the whole search on every thread against a shared table, as LazySmpStrategy does.
+   */
+  LAZY_SMP;
+
+  /**
+   * Creates a strategy that searches this way.
+   * @param depth The most moves to look ahead, counting the player's own move.
+   * @param evaluator The Evaluator that scores the positions at the end of the search.
+   * @param timeLimit The time in milliseconds each move may take, or 0 for no limit.
+   * @param threads The number of threads to search with.
+   * @return The new strategy.
+   * @throws IllegalArgumentException if the depth or number of threads is less than 1, the
+   *                                  evaluator is null or the time limit is negative.
+   */
+  public ReversiStrategy create(int depth, Evaluator evaluator, long timeLimit, int threads) {
+    if (this == ROOT_SPLIT) {
+      return new RootSplitStrategy(depth, evaluator, timeLimit, threads);
+    }
+    return new LazySmpStrategy(depth, evaluator, timeLimit, threads);
+  }
+}
@@ -0,0 +1,194 @@
+package strategy;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A read-only file of positions, such as an opening book or an endgame table, that is mapped
+ * into memory rather than read into the heap. Every process that opens the same file shares one
+ * copy of it in the operating system's page cache, pages are read from disk only when a lookup
+ * first touches them, and a lookup does not allocate anything.
+ *
+ * <p>The file starts with a 16 byte header: the int MAGIC, the int VERSION and the long number
+ * of records. It is followed by the records, each 16 bytes: the long position hash, the int
+ * cell index of a move and an int value, such as a score, whose meaning depends on the kind of
+ * file. The records are sorted by position hash, compared as signed longs, so that a position
+ * is found by binary search. All numbers are big-endian.
+ *
+ * <p>Lookups only read the mapped memory, so a PositionFile can be shared by any number of
+ * threads.
+ */
+public final class PositionFile {
+
+  /**
+   * The first four bytes of a position file, "RVPF".
+   */
+  public static final int MAGIC = 0x52565046;
+
+  /**
+   * The version of the file format written by write.
+   */
+  public static final int VERSION = 1;
+
+  // the number of bytes before the first record
+  private static final int HEADER = 16;
+
+  // the number of bytes of each record
+  private static final int RECORD = 16;
+
+  // the records are mapped in segments of 1 GB, since one mapping cannot reach past 2 GB
+  private static final int SEGMENT_SHIFT = 26;
+  private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+  private final MappedByteBuffer[] segments;
+  private final long count;
+
+  private PositionFile(MappedByteBuffer[] segments, long count) {
+    this.segments = segments;
+    this.count = count;
+  }
+
+  /**
+   * Maps the given position file into memory. The file must not be changed while it is open.
+   * @param file the file written by write.
+   * @return the mapped file.
+   * @throws IOException if the file cannot be read or is not a position file.
+   */
+  public static PositionFile open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER);
+      while (header.hasRemaining() && channel.read(header) >= 0) {
+        // read until the header is full or the file ends
+      }
+      header.flip();
+      if (header.remaining() < HEADER || header.getInt() != MAGIC) {
+        throw new IOException(file + " is not a position file");
+      }
+      int version = header.getInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported position file version " + version);
+      }
+      long count = header.getLong();
+      if (count < 0 || channel.size() != HEADER + count * RECORD) {
+        throw new IOException("Corrupt position file " + file);
+      }
+      int segmentCount = (int) ((count + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+      MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+      for (int s = 0; s < segmentCount; s++) {
+        long first = (long) s << SEGMENT_SHIFT;
+        long records = Math.min(count - first, 1L << SEGMENT_SHIFT);
+        // the mapping stays valid after the channel is closed
+        segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER + first * RECORD,
+                records * RECORD);
+      }
+      return new PositionFile(segments, count);
+    }
+  }
+
+  /**
+   * Writes a position file with the given records, replacing the file if it exists. The records
+   * may be given in any order and are sorted as they are written.
+   * @param file the file to write.
+   * @param hashes the position hash of each record.
+   * @param moves the cell index of the move of each record.
+   * @param values the value of each record.
+   * @throws IOException if the file cannot be written.
+   * @throws IllegalArgumentException if the arrays differ in length or two records have the same
+   *                                  position hash.
+   */
+  public static void write(Path file, long[] hashes, int[] moves, int[] values)
+          throws IOException {
+    if (moves.length != hashes.length || values.length != hashes.length) {
+      throw new IllegalArgumentException("Every record needs a hash, a move and a value");
+    }
+    Integer[] order = new Integer[hashes.length];
+    for (int k = 0; k < order.length; k++) {
+      order[k] = k;
+    }
+    Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+    for (int k = 1; k < order.length; k++) {
+      if (hashes[order[k]] == hashes[order[k - 1]]) {
+        throw new IllegalArgumentException("Two records have the same position hash");
+      }
+    }
+    try (OutputStream out = Files.newOutputStream(file)) {
+      DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+      data.writeInt(MAGIC);
+      data.writeInt(VERSION);
+      data.writeLong(order.length);
+      for (int k : order) {
+        data.writeLong(hashes[k]);
+        data.writeInt(moves[k]);
+        data.writeInt(values[k]);
+      }
+      data.flush();
+    }
+  }
+
+  /**
+   * Returns the number of records in this file.
+   * @return the number of records.
+   */
+  public long size() {
+    return this.count;
+  }
+
+  /**
+   * Finds the record of the position with the given hash.
+   * @param hash the position hash to look for.
+   * @return the index of the record, or -1 if the position is not in the file.
+   */
+  public long find(long hash) {
+    long low = 0;
+    long high = this.count - 1;
+    while (low <= high) {
+      long middle = (low + high) >>> 1;
+      long found = this.segment(middle).getLong(this.offset(middle));
+      if (found < hash) {
+        low = middle + 1;
+      } else if (found > hash) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the move of the record at the given index.
+   * @param index an index returned by find.
+   * @return the cell index of the move.
+   */
+  public int move(long index) {
+    return this.segment(index).getInt(this.offset(index) + 8);
+  }
+
+  /**
+   * Returns the value of the record at the given index.
+   * @param index an index returned by find.
+   * @return the value of the record.
+   */
+  public int value(long index) {
+    return this.segment(index).getInt(this.offset(index) + 12);
+  }
+
+  // the mapping holding the given record
+  private ByteBuffer segment(long index) {
+    return this.segments[(int) (index >>> SEGMENT_SHIFT)];
+  }
+
+  // the position of the given record within its mapping
+  private int offset(long index) {
+    return (int) (index & SEGMENT_MASK) * RECORD;
+  }
+}
@@ -0,0 +1,166 @@
+package strategy;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import model.BitboardReversi;
+import model.HexGeometry;
+import model.Player;
+import model.ReadOnlyReversi;
+
+/**
+ * An Evaluator that scores a position by where the discs are rather than how many there are,
+ * adding up four terms, each taken for the player minus the same for their opponent:
+ * <ul>
+ *   <li>positional: the weight of every tile holding one of their discs, from a table made
+ *       once for each board size. Corners are worth the most, the tiles next to a corner cost
+ *       the most since they let the opponent into the corner, and the other edge tiles are
+ *       worth a little.</li>
+ *   <li>mobility: the number of legal moves they have.</li>
+ *   <li>frontier: the number of their discs next to an empty tile, which give the opponent
+ *       moves, counted against them.</li>
+ *   <li>stability: the number of their discs that can never be flipped, as found by
+ *       BitboardReversi.countStable, which a board searched on keeps track of move by
+ *       move.</li>
+ * </ul>
+ * Tiles that no move can ever reach are left out of every term. The tables are shared by every
+ * PositionalEvaluator and nothing else is kept between calls, so one PositionalEvaluator can be
+ * used by every thread of a parallel search at once.
+ */
+public class PositionalEvaluator implements Evaluator {
+
+  // the weights of the tiles of the table
+  private static final int CORNER_WEIGHT = 20;
+  private static final int NEXT_TO_CORNER_WEIGHT = -6;
+  private static final int EDGE_WEIGHT = 3;
+
+  // the largest weight a term may be given, which keeps every score far below WIN
+  private static final int MAX_WEIGHT = 100;
+
+  private static final ConcurrentMap<Integer, Table> TABLES = new ConcurrentHashMap<>();
+
+  //how much each term counts
+  private final int positional;
+  private final int mobility;
+  private final int frontier;
+  private final int stability;
+
+  /**
+   * Constructs a PositionalEvaluator with the given weight for each term.
+   * @param positional The weight of the positional term.
+   * @param mobility The weight of the mobility term.
+   * @param frontier The weight of the frontier term.
+   * @param stability The weight of the stability term.
+   * @throws IllegalArgumentException if a weight is negative or more than 100.
+   */
+  public PositionalEvaluator(int positional, int mobility, int frontier, int stability) {
+    for (int weight : new int[] {positional, mobility, frontier, stability}) {
+      if (weight < 0 || weight > MAX_WEIGHT) {
+        throw new IllegalArgumentException("Weights must be between 0 and " + MAX_WEIGHT);
+      }
+    }
+    this.positional = positional;
+    this.mobility = mobility;
+    this.frontier = frontier;
+    this.stability = stability;
+  }
+
+  /**
+   * Default constructor for PositionalEvaluator, weighing the positional term 1, mobility 4,
+   * frontier 2 and stability 10.
+   */
+  public PositionalEvaluator() {
+    this(1, 4, 2, 10);
+  }
+
+  @Override
+  public int evaluate(ReadOnlyReversi model, Player player) {
+    BitboardReversi board;
+    if (model instanceof BitboardReversi) {
+      board = (BitboardReversi) model;
+    } else {
+      board = new BitboardReversi(model);
+      board.trackStability();
+    }
+    HexGeometry geometry = board.getGeometry();
+    Table table = table(geometry.getSize());
+    int position = 0;
+    int front = 0;
+    for (int cell = 0; cell < geometry.cellCount(); cell++) {
+      Player owner = board.ownerAt(cell);
+      if (owner == null) {
+        continue;
+      }
+      int sign = owner == player ? 1 : -1;
+      position += sign * table.weights[cell];
+      for (int dir = 0; dir < HexGeometry.DIRECTIONS; dir++) {
+        int neighbor = geometry.neighbor(cell, dir);
+        if (neighbor >= 0 && table.live[neighbor] && board.ownerAt(neighbor) == null) {
+          front += sign;
+          break;
+        }
+      }
+    }
+    Player other = AlphaBetaSearch.next(player);
+    int moves = board.countMoves(player) - board.countMoves(other);
+    int stable = board.countStable(player) - board.countStable(other);
+    return this.positional * position + this.mobility * moves - this.frontier * front
+            + this.stability * stable;
+  }
+
+  /**
+   * Returns the weight of every cell of a board of the given size, indexed as by HexGeometry.
+   * The array is shared and must not be modified.
+   */
+  static int[] weights(int size) {
+    return table(size).weights;
+  }
+
+  // the table of the given board size, made the first time it is needed
+  private static Table table(int size) {
+    return TABLES.computeIfAbsent(size, Table::new);
+  }
+
+  // the tiles of one board size that can hold a disc some time in a game, and their weights
+  private static final class Table {
+    private final boolean[] live;
+    private final int[] weights;
+
+    Table(int size) {
+      HexGeometry geometry = HexGeometry.of(size);
+      int cells = geometry.cellCount();
+      BitboardReversi start = new BitboardReversi(size);
+      this.live = new boolean[cells];
+      for (int cell = 0; cell < cells; cell++) {
+        this.live[cell] = start.ownerAt(cell) != null;
+      }
+      for (int cell : EndgameSearch.playable(start)) {
+        this.live[cell] = true;
+      }
+      boolean[] corners = new boolean[cells];
+      this.weights = new int[cells];
+      for (int cell = 0; cell < cells; cell++) {
+        corners[cell] = this.live[cell] && geometry.corner(cell);
+      }
+      for (int cell = 0; cell < cells; cell++) {
+        if (!this.live[cell]) {
+          continue;
+        }
+        boolean edge = false;
+        boolean nextToCorner = false;
+        for (int dir = 0; dir < HexGeometry.DIRECTIONS; dir++) {
+          int neighbor = geometry.neighbor(cell, dir);
+          edge |= neighbor < 0;
+          nextToCorner |= neighbor >= 0 && corners[neighbor];
+        }
+        if (corners[cell]) {
+          this.weights[cell] = CORNER_WEIGHT;
+        } else if (nextToCorner) {
+          this.weights[cell] = NEXT_TO_CORNER_WEIGHT;
+        } else if (edge) {
+          this.weights[cell] = EDGE_WEIGHT;
+        }
+      }
+    }
+  }
+}
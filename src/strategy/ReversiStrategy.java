@@ -23,4 +23,12 @@ public interface ReversiStrategy {
    */
   NoDiscHexagon chooseTile(Reversi model, Player player);
 
+  /**
+   * Stops any threads the strategy searches on, once the game it plays is over. The strategy
+   * may not be able to choose a tile after. Does nothing for a strategy that only uses the
+   * calling thread.
+   */
+  default void shutdown() {
+  }
+
 }
@@ -0,0 +1,301 @@
+package strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import model.BitboardReversi;
+import model.NoDiscHexagon;
+import model.Player;
+import model.Reversi;
+
+/**
+ * An implementation of a ReversiStrategy that runs the search of AlphaBetaStrategy on several
+ * threads at once. Strategy: the first legal move, which is the best move of the last search
+ * whenever there is one, is searched alone to find how good the position is. The rest of the
+ * moves are then split across a ForkJoinPool, each worker searching its move on its own copy
+ * of the board against the best score found so far, so that most of them are cut off early.
+ * Each worker keeps its copy of the board and its search for every move it takes while
+ * choosing a tile. All workers share one TranspositionTable. The Evaluator is called from all
+ * of the workers at once, so it must not keep any state of its own. Interrupting the thread
+ * that chooses a tile stops the workers too. The threads of a strategy run until it is shut
+ * down.
+ */
+public class RootSplitStrategy implements ReversiStrategy {
+
+  /**
+   * The number of entries in the transposition table unless another is given, which take 32 MB
+   * once the table is made.
+   */
+  public static final int DEFAULT_TABLE_ENTRIES = 1 << 21;
+
+  //how many moves ahead the search looks, or the deepest it may look with a time limit
+  private final int depth;
+
+  //scores the positions at the end of the search
+  private final Evaluator evaluator;
+
+  //the time in milliseconds each move may take, or 0 to always search to the full depth
+  private final long timeLimit;
+
+  //the threads the root moves are split across
+  private final ForkJoinPool pool;
+
+  //the number of entries in the transposition table
+  private final int tableEntries;
+
+  //the results of earlier searches, shared by every worker, or null until the first move
+  private TranspositionTable table;
+
+  //the copy of the board and the search of each worker thread, made the first time the thread
+  //takes a move of a new board
+  private final ThreadLocal<Worker> workers = new ThreadLocal<>();
+
+  /**
+   * Constructs a RootSplitStrategy with a transposition table of the given size. With a time
+   * limit the search deepens one move at a time until the time runs out or the given depth is
+   * reached, like AlphaBetaStrategy.
+   * @param depth The most moves to look ahead, counting the player's own move.
+   * @param evaluator The Evaluator that scores the positions at the end of the search.
+   * @param timeLimit The time in milliseconds each move may take, or 0 for no limit.
+   * @param threads The number of threads to search with.
+   * @param tableEntries The number of entries in the transposition table, each of which takes
+   *                     16 bytes, rounded up to a power of two.
+   * @throws IllegalArgumentException if the depth or number of threads is less than 1, the
+   *                                  evaluator is null, the time limit is negative or the number
+   *                                  of entries is not between 1 and 2^29.
+   */
+  public RootSplitStrategy(int depth, Evaluator evaluator, long timeLimit, int threads,
+                           int tableEntries) {
+    if (depth < 1) {
+      throw new IllegalArgumentException("Depth must be at least 1");
+    } else if (evaluator == null) {
+      throw new IllegalArgumentException("Evaluator cannot be null");
+    } else if (timeLimit < 0) {
+      throw new IllegalArgumentException("Time limit cannot be negative");
+    } else if (threads < 1) {
+      throw new IllegalArgumentException("There must be at least 1 thread");
+    } else if (tableEntries < 1 || tableEntries > 1 << 29) {
+      throw new IllegalArgumentException("Table entries must be between 1 and 2^29");
+    }
+    this.depth = depth;
+    this.evaluator = evaluator;
+    this.timeLimit = timeLimit;
+    this.tableEntries = tableEntries;
+    this.pool = new ForkJoinPool(threads);
+  }
+
+  /**
+   * Constructs a RootSplitStrategy. With a time limit the search deepens one move at a time
+   * until the time runs out or the given depth is reached, like AlphaBetaStrategy.
+   * @param depth The most moves to look ahead, counting the player's own move.
+   * @param evaluator The Evaluator that scores the positions at the end of the search.
+   * @param timeLimit The time in milliseconds each move may take, or 0 for no limit.
+   * @param threads The number of threads to search with.
+   * @throws IllegalArgumentException if the depth or number of threads is less than 1, the
+   *                                  evaluator is null or the time limit is negative.
+   */
+  public RootSplitStrategy(int depth, Evaluator evaluator, long timeLimit, int threads) {
+    this(depth, evaluator, timeLimit, threads, DEFAULT_TABLE_ENTRIES);
+  }
+
+  @Override
+  public NoDiscHexagon chooseTile(Reversi model, Player player) {
+    long deadline = AlphaBetaSearch.deadline(this.timeLimit);
+    BitboardReversi board = new BitboardReversi(model);
+    if (this.table == null) {
+      this.table = new TranspositionTable(this.tableEntries);
+    }
+    this.table.newSearch();
+    AlphaBetaSearch root = new AlphaBetaSearch(board, this.evaluator, this.table, this.depth,
+            deadline);
+    AtomicBoolean stop = new AtomicBoolean();
+    root.stopWhen(stop);
+    int count = root.orderRoot(player);
+    if (count == 0) {
+      return null;
+    }
+    int best = root.rootMove(0);
+    int first = deadline == 0 ? root.getDepth() : 1;
+    for (int depth = first; depth <= root.getDepth(); depth++) {
+      int found = this.split(root, board, player, count, depth, deadline, depth > first, stop);
+      if (found < 0) {
+        break;
+      }
+      best = found;
+      root.allowTimeout();
+      root.rootFirst(best, count);
+    }
+    return AlphaBetaSearch.tile(model, best);
+  }
+
+  /**
+   * Stops the threads the strategy searches on. The strategy cannot choose a tile after.
+   */
+  @Override
+  public void shutdown() {
+    this.pool.shutdownNow();
+  }
+
+  // returns the search of the worker running on this thread for the given board, making it if
+  // the thread has not searched that board yet
+  private AlphaBetaSearch workerSearch(BitboardReversi board, long deadline) {
+    Worker worker = this.workers.get();
+    if (worker == null || worker.root != board) {
+      worker = new Worker(board, new AlphaBetaSearch(new BitboardReversi(board), this.evaluator,
+              this.table, this.depth, deadline));
+      this.workers.set(worker);
+    }
+    return worker.search;
+  }
+
+  // searches every root move to the given depth, the first alone and the rest in parallel, and
+  // returns the cell of the best one, or -1 if the time ran out or the search was stopped first
+  private int split(AlphaBetaSearch root, BitboardReversi board, Player player, int count,
+                    int depth, long deadline, boolean canStop, AtomicBoolean stop) {
+    int alpha;
+    try {
+      alpha = root.searchMove(player, root.rootMove(0), depth, -AlphaBetaSearch.INFINITY,
+              AlphaBetaSearch.INFINITY);
+    } catch (AlphaBetaSearch.OutOfTime e) {
+      return -1;
+    }
+    Split shared = new Split(alpha, stop);
+    List<MoveTask> tasks = new ArrayList<>();
+    for (int k = 1; k < count; k++) {
+      tasks.add(new MoveTask(this, board, player, root.rootMove(k), k, depth, deadline, canStop,
+              shared));
+    }
+    ForkJoinTask<?> all = this.pool.submit(new RecursiveAction() {
+      @Override
+      protected void compute() {
+        invokeAll(tasks);
+      }
+    });
+    try {
+      all.get();
+    } catch (InterruptedException e) {
+      // the workers give up at their next clock check, so waiting for them is short
+      stop.set(true);
+      all.join();
+      Thread.currentThread().interrupt();
+      return -1;
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      } else if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+    if (shared.timedOut) {
+      return -1;
+    }
+    int cell = root.rootMove(shared.bestIndex());
+    root.storeRoot(player, depth, shared.bestScore(), cell);
+    return cell;
+  }
+
+  // the best score and move found so far by the workers of one split, packed into one long as
+  // the score in the high half and Integer.MAX_VALUE minus the index of the move in the low
+  // half, so that a better score, and then an earlier move, always makes a larger long
+  private static final class Split {
+    private final AtomicLong best;
+    private final AtomicBoolean stop;
+    private volatile boolean timedOut;
+
+    Split(int score, AtomicBoolean stop) {
+      this.best = new AtomicLong(pack(score, 0));
+      this.stop = stop;
+    }
+
+    private static long pack(int score, int index) {
+      return ((long) score << 32) | (Integer.MAX_VALUE - index);
+    }
+
+    int bestScore() {
+      return (int) (this.best.get() >> 32);
+    }
+
+    int bestIndex() {
+      return Integer.MAX_VALUE - (int) this.best.get();
+    }
+
+    // records the score of the move at the given index if it beats the best so far
+    void offer(int score, int index) {
+      long packed = pack(score, index);
+      long current = this.best.get();
+      while (packed > current && !this.best.compareAndSet(current, packed)) {
+        current = this.best.get();
+      }
+    }
+  }
+
+  // the board a worker thread copied and the search it runs on the copy
+  private static final class Worker {
+    private final BitboardReversi root;
+    private final AlphaBetaSearch search;
+
+    Worker(BitboardReversi root, AlphaBetaSearch search) {
+      this.root = root;
+      this.search = search;
+    }
+  }
+
+  // searches one root move on the worker's copy of the board
+  private static final class MoveTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final RootSplitStrategy strategy;
+    private final BitboardReversi board;
+    private final Player player;
+    private final int cell;
+    private final int index;
+    private final int depth;
+    private final long deadline;
+    private final boolean canStop;
+    private final Split shared;
+
+    MoveTask(RootSplitStrategy strategy, BitboardReversi board, Player player, int cell,
+             int index, int depth, long deadline, boolean canStop, Split shared) {
+      this.strategy = strategy;
+      this.board = board;
+      this.player = player;
+      this.cell = cell;
+      this.index = index;
+      this.depth = depth;
+      this.deadline = deadline;
+      this.canStop = canStop;
+      this.shared = shared;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.shared.timedOut || this.shared.stop.get()) {
+        this.shared.timedOut = true;
+        return;
+      }
+      AlphaBetaSearch search = this.strategy.workerSearch(this.board, this.deadline);
+      search.stopWhen(this.shared.stop);
+      if (this.canStop) {
+        search.allowTimeout();
+      }
+      int alpha = this.shared.bestScore();
+      try {
+        int score = search.searchMove(this.player, this.cell, this.depth, alpha,
+                AlphaBetaSearch.INFINITY);
+        // a score at or below the window is only an upper bound, so it cannot be the best
+        if (score > alpha) {
+          this.shared.offer(score, this.index);
+        }
+      } catch (AlphaBetaSearch.OutOfTime e) {
+        this.shared.timedOut = true;
+      }
+    }
+  }
+}
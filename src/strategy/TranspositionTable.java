@@ -0,0 +1,177 @@
+package strategy;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size table of search results keyed by the Zobrist hash of a position, so that a
+ * search that reaches the same position again by a different order of moves can reuse the
+ * result instead of searching it again. Each entry is two longs: the packed result and the
+ * result exclusive or'ed with the hash. An entry is only trusted when the two agree, so threads
+ * can share the table without locks and a torn write is just a miss. An entry is replaced by a
+ * deeper search of any position, by any search of the same position, and by anything once it is
+ * left over from an earlier move.
+ */
+public final class TranspositionTable {
+
+  /**
+   * The stored score is exact.
+   */
+  public static final int EXACT = 0;
+
+  /**
+   * The stored score is a lower bound, as the search was cut off by a move at least that good.
+   */
+  public static final int LOWER = 1;
+
+  /**
+   * The stored score is an upper bound, as no move reached the lower end of the search window.
+   */
+  public static final int UPPER = 2;
+
+  /**
+   * The result of probing for a position that is not in the table.
+   */
+  public static final long MISS = 0L;
+
+  // layout of a packed entry: the score in the low 32 bits, then the depth, the bound, the cell
+  // of the best move plus one, the generation and a bit that is set in every stored entry
+  private static final int DEPTH_SHIFT = 32;
+  private static final int BOUND_SHIFT = 40;
+  private static final int MOVE_SHIFT = 42;
+  private static final int GENERATION_SHIFT = 58;
+  private static final long VALID = 1L << 63;
+  private static final int MAX_DEPTH = 0xFF;
+  private static final int MAX_MOVE = 0xFFFF;
+  private static final int GENERATIONS = 0x1F;
+
+  // two longs per entry: the hash exclusive or'ed with the data, then the data
+  private final AtomicLongArray slots;
+
+  // the number of entries minus one, used to pick the entry of a hash
+  private final int mask;
+
+  // the generation of new entries, advanced at the start of each move's search
+  private volatile int generation;
+
+  /**
+   * Constructs an empty TranspositionTable.
+   * @param entries The number of entries, which is rounded up to a power of two. Each entry
+   *                takes 16 bytes.
+   * @throws IllegalArgumentException if the number of entries is not positive or more than 2^29.
+   */
+  public TranspositionTable(int entries) {
+    if (entries <= 0 || entries > 1 << 29) {
+      throw new IllegalArgumentException("Entries must be between 1 and 2^29");
+    }
+    int capacity = Integer.highestOneBit(entries);
+    if (capacity < entries) {
+      capacity <<= 1;
+    }
+    this.slots = new AtomicLongArray(2 * capacity);
+    this.mask = capacity - 1;
+  }
+
+  /**
+   * Marks every entry stored so far as left over from an earlier search, so that new results
+   * replace them whatever their depth. Called once at the start of the search for each move.
+   */
+  public void newSearch() {
+    this.generation = (this.generation + 1) & GENERATIONS;
+  }
+
+  /**
+   * Looks up the stored result for the given position.
+   * @param hash The Zobrist hash of the position.
+   * @return The packed result, to be read with score, depth, bound and move, or MISS.
+   */
+  public long probe(long hash) {
+    int slot = this.slot(hash);
+    long data = this.slots.get(slot + 1);
+    long check = this.slots.get(slot);
+    if (data == MISS || (check ^ data) != hash) {
+      return MISS;
+    }
+    return data;
+  }
+
+  /**
+   * Stores the result of searching the given position, unless the entry it maps to holds a
+   * deeper search of another position from the current move.
+   * @param hash The Zobrist hash of the position.
+   * @param depth The depth the position was searched to.
+   * @param score The score found by the search.
+   * @param bound Whether the score is EXACT, a LOWER bound or an UPPER bound.
+   * @param move The cell of the best move found, or -1 if there is none.
+   */
+  public void store(long hash, int depth, int score, int bound, int move) {
+    int slot = this.slot(hash);
+    long old = this.slots.get(slot + 1);
+    if (old != MISS && (this.slots.get(slot) ^ old) != hash
+            && generation(old) == this.generation && depth(old) > depth) {
+      return;
+    }
+    long data = VALID
+            | ((long) this.generation << GENERATION_SHIFT)
+            | ((long) Math.min(move + 1, MAX_MOVE) << MOVE_SHIFT)
+            | ((long) bound << BOUND_SHIFT)
+            | ((long) Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT)
+            | (score & 0xFFFFFFFFL);
+    this.slots.set(slot, hash ^ data);
+    this.slots.set(slot + 1, data);
+  }
+
+  /**
+   * Removes every entry from the table.
+   */
+  public void clear() {
+    for (int k = 0; k < this.slots.length(); k++) {
+      this.slots.set(k, 0L);
+    }
+  }
+
+  /**
+   * Returns the score of a packed result.
+   * @param data A result returned by probe.
+   * @return The stored score.
+   */
+  public static int score(long data) {
+    return (int) data;
+  }
+
+  /**
+   * Returns the depth of a packed result.
+   * @param data A result returned by probe.
+   * @return The depth the position was searched to.
+   */
+  public static int depth(long data) {
+    return (int) (data >>> DEPTH_SHIFT) & MAX_DEPTH;
+  }
+
+  /**
+   * Returns the bound of a packed result.
+   * @param data A result returned by probe.
+   * @return EXACT, LOWER or UPPER.
+   */
+  public static int bound(long data) {
+    return (int) (data >>> BOUND_SHIFT) & 0x3;
+  }
+
+  /**
+   * Returns the best move of a packed result.
+   * @param data A result returned by probe.
+   * @return The cell of the best move, or -1 if none was stored.
+   */
+  public static int move(long data) {
+    return ((int) (data >>> MOVE_SHIFT) & MAX_MOVE) - 1;
+  }
+
+  // the generation of a packed result
+  private static int generation(long data) {
+    return (int) (data >>> GENERATION_SHIFT) & GENERATIONS;
+  }
+
+  // the index of the first long of the entry the hash maps to
+  private int slot(long hash) {
+    return ((int) (hash ^ (hash >>> 32)) & this.mask) << 1;
+  }
+}